@@ -0,0 +1,72 @@
+package zdl.util.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import zdl.util.common.RecordIDUtil;
+import zdl.util.common.RecordIdGenerator;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 记录id生成基准测试，以synchronized的{@link RecordIDUtil}为基线对比无锁的{@link RecordIdGenerator}，
+ * 分别在单线程与8线程竞争下测吞吐量
+ * <p>
+ * 注意RecordIDUtil每秒超过2^17个id时序列号回绕、会产生重复id，基线结果不代表其能正确维持该吞吐量
+ *
+ * @author ZDLegend
+ * @version 1.0
+ * @date 2026/10/17/ 13:20
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RecordIdBenchmark {
+
+    private final RecordIdGenerator generator = new RecordIdGenerator(0, 1);
+
+    @Benchmark
+    @Threads(1)
+    public long synchronizedSingle() {
+        return RecordIDUtil.generateRecordId(System.currentTimeMillis());
+    }
+
+    @Benchmark
+    @Threads(8)
+    public long synchronizedContended() {
+        return RecordIDUtil.generateRecordId(System.currentTimeMillis());
+    }
+
+    @Benchmark
+    @Threads(1)
+    public long casSingle() {
+        return generator.nextId();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public long casContended() {
+        return generator.nextId();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(RecordIdBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,202 @@
+package zdl.util.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import zdl.util.easy.db.DatabaseConfig;
+import zdl.util.easy.db.Filter;
+import zdl.util.easy.db.Filters;
+import zdl.util.easy.db.PreparedSql;
+import zdl.util.easy.db.SqlBuild;
+import zdl.util.easy.db.select.Page;
+import zdl.util.easy.db.select.Select;
+import zdl.util.easy.db.select.Sort;
+import zdl.util.easy.db.statistics.Count;
+import zdl.util.easy.db.statistics.Statistics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static zdl.util.easy.db.FilterConstant.*;
+
+/**
+ * easy-db sql拼接基准测试，覆盖SqlBuild、Select、Statistics的字面量拼接与参数化拼接
+ * <ul>
+ *     <li>small：一层AND，3个条件</li>
+ *     <li>wide：一层AND，64个条件，含in/between/like</li>
+ *     <li>deep：AND/OR交替嵌套6层，每层2个条件</li>
+ * </ul>
+ * 运行：mvn -pl zdl-benchmark -am package，然后java -jar zdl-benchmark/target/benchmarks.jar，
+ * 或直接运行{@link #main(String[])}，结果包含ns/op以及GC profiler给出的gc.alloc.rate.norm（bytes/op）
+ *
+ * @author ZDLegend
+ * @version 1.0
+ * @date 2026/10/16/ 21:40
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SqlBuildBenchmark {
+
+    @Param({"small", "wide", "deep"})
+    private String shape;
+
+    private DatabaseConfig source;
+    private Filters filters;
+    private Select select;
+    private Statistics statistics;
+
+    @Setup
+    public void setup() {
+        source = new DatabaseConfig();
+        source.setDbType("postgresql");
+        source.setSchemaName("public");
+        source.setTableName("t_order");
+
+        switch (shape) {
+            case "small":
+                filters = small();
+                break;
+            case "wide":
+                filters = wide();
+                break;
+            case "deep":
+                filters = deep(6);
+                break;
+            default:
+                throw new IllegalArgumentException(shape);
+        }
+
+        Sort sort = new Sort();
+        sort.setField("create_time");
+        sort.setDirection(DESC);
+        Page page = new Page();
+        page.setOffset(20);
+        page.setLimit(10);
+
+        select = new Select();
+        select.setFields(List.of("id", "name", "amount", "create_time"));
+        select.setFilters(filters);
+        select.setSort(sort);
+        select.setPage(page);
+
+        Count count = new Count();
+        count.setType(COUNT);
+        count.setField(ASTERISK);
+        Count sum = new Count();
+        sum.setType(SUM);
+        sum.setField("amount");
+        statistics = new Statistics();
+        statistics.setFilters(filters);
+        statistics.setGroupBy(List.of("status"));
+        statistics.setCounts(List.of(count, sum));
+    }
+
+    @Benchmark
+    public String filtersLiteral() {
+        return SqlBuild.sqlBuild(filters);
+    }
+
+    @Benchmark
+    public PreparedSql filtersPrepared() {
+        return SqlBuild.preparedSqlBuild(filters);
+    }
+
+    @Benchmark
+    public String selectLiteral() {
+        return select.sqlBuild(source);
+    }
+
+    @Benchmark
+    public PreparedSql selectPrepared() {
+        return select.preparedSqlBuild(source);
+    }
+
+    @Benchmark
+    public String statisticsLiteral() {
+        return statistics.sqlBuild(source);
+    }
+
+    @Benchmark
+    public PreparedSql statisticsPrepared() {
+        return statistics.preparedSqlBuild(source);
+    }
+
+    private static Filters small() {
+        List<Filter> filter = new ArrayList<>();
+        filter.add(filter("status", EQ, "1"));
+        filter.add(filter("amount", GT, "100"));
+        filter.add(filter("name", CONTAINS, "abc*"));
+        return filters(AND, filter, null);
+    }
+
+    private static Filters wide() {
+        List<Filter> filter = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            switch (i % 4) {
+                case 0:
+                    filter.add(filter("c" + i, EQ, String.valueOf(i)));
+                    break;
+                case 1:
+                    filter.add(filter("c" + i, IN, i + "," + (i + 1) + "," + (i + 2)));
+                    break;
+                case 2:
+                    filter.add(filter("c" + i, BETWEEN, i + "," + (i * 10)));
+                    break;
+                default:
+                    filter.add(filter("c" + i, START_WITH, "v" + i));
+                    break;
+            }
+        }
+        return filters(AND, filter, null);
+    }
+
+    private static Filters deep(int depth) {
+        String operator = depth % 2 == 0 ? AND : OR;
+        List<Filter> filter = new ArrayList<>();
+        filter.add(filter("a" + depth, EQ, String.valueOf(depth)));
+        filter.add(filter("b" + depth, LT, String.valueOf(depth * 100)));
+        return filters(operator, filter, depth > 1 ? List.of(deep(depth - 1)) : null);
+    }
+
+    private static Filters filters(String operator, List<Filter> filter, List<Filters> children) {
+        Filters filters = new Filters();
+        filters.setOperator(operator);
+        filters.setFilter(filter);
+        filters.setFilters(children);
+        return filters;
+    }
+
+    private static Filter filter(String field, String operator, String value) {
+        Filter filter = new Filter();
+        filter.setField(field);
+        filter.setOperator(operator);
+        filter.setValue(value);
+        return filter;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(SqlBuildBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -1,17 +1,31 @@
 package zdl.util.common;
 
+import zdl.util.common.async.ExecutorMetrics;
+import zdl.util.common.async.ExecutorProfile;
+import zdl.util.common.async.HashedWheelTimer;
+import zdl.util.common.async.ProfiledExecutor;
+import zdl.util.common.async.TimerHandle;
+
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 import java.util.Timer;
 import java.util.TimerTask;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
 /**
  * 异步封装基于CompletableFuture
+ * <p>
+ * 任务按名称提交到不同的执行器，默认有{@link #CPU}（ForkJoinPool，计算任务）与{@link #IO}（弹性线程池，阻塞任务）两个，
+ * 未指定名称的方法使用{@link #IO}。执行器的排队数有上限，默认超出时抛出{@link java.util.concurrent.RejectedExecutionException}，
+ * 可通过{@link #register(ExecutorProfile)}替换或新增。
+ * 定时任务由{@link HashedWheelTimer}调度（精度10ms），到期后在{@link #IO}执行器中执行
  *
  * @author ZDLegend
  * @create 2017/12/12
@@ -19,14 +33,84 @@ import java.util.function.Supplier;
 
 public class AsyncUtil {
 
-    private final static ExecutorService cachedThreadPool = Executors.newFixedThreadPool(8);
-    private final static Timer timer = new Timer();
+    public static final String CPU = "cpu";
+    public static final String IO = "io";
+
+    private final static ConcurrentMap<String, ProfiledExecutor> executors = new ConcurrentHashMap<>();
+    private final static HashedWheelTimer timer = new HashedWheelTimer("async-timer", 10, TimeUnit.MILLISECONDS, 512,
+            command -> executor(IO).execute(command));
+
+    static {
+        register(ExecutorProfile.cpu(CPU));
+        register(ExecutorProfile.io(IO));
+    }
+
+    /**
+     * @return 共享的时间轮定时器
+     */
+    public static HashedWheelTimer timer() {
+        return timer;
+    }
+
+    /**
+     * 添加一个一次性定时任务
+     *
+     * @param runnable 定时任务
+     * @param delay    延迟
+     * @param unit     delay的单位
+     * @return 可取消的句柄
+     */
+    public static TimerHandle schedule(Runnable runnable, long delay, TimeUnit unit) {
+        return timer.schedule(runnable, delay, unit);
+    }
+
+    /**
+     * 注册执行器，同名的旧执行器不再接受新任务，已提交的任务继续执行
+     */
+    public static ProfiledExecutor register(ExecutorProfile profile) {
+        ProfiledExecutor executor = new ProfiledExecutor(profile);
+        ProfiledExecutor old = executors.put(profile.getName(), executor);
+        if (old != null) {
+            old.shutdown();
+        }
+        return executor;
+    }
+
+    /**
+     * @param name 执行器名称
+     * @return 执行器
+     * @throws IllegalArgumentException 未注册
+     */
+    public static ProfiledExecutor executor(String name) {
+        ProfiledExecutor executor = executors.get(name);
+        if (executor == null) {
+            throw new IllegalArgumentException("未注册的执行器：" + name);
+        }
+        return executor;
+    }
+
+    /**
+     * @return 所有执行器的指标快照
+     */
+    public static List<ExecutorMetrics> metrics() {
+        List<ExecutorMetrics> metrics = new ArrayList<>();
+        executors.values().forEach(executor -> metrics.add(executor.metrics()));
+        return metrics;
+    }
+
+    public static <V> CompletableFuture<V> supplyAsync(String executor, Supplier<V> supplier) {
+        return CompletableFuture.supplyAsync(supplier, executor(executor));
+    }
+
+    public static CompletableFuture<Void> runAsync(String executor, Runnable runnable) {
+        return CompletableFuture.runAsync(runnable, executor(executor));
+    }
 
     /**
      * 将函数handle进行异步操作, 获取到的结果在resultHandle中执行
      */
     public static <V> CompletableFuture<V> handle(Supplier<V> handle, Consumer<V> success, Consumer<Throwable> exception) {
-        return CompletableFuture.supplyAsync(handle, cachedThreadPool)
+        return CompletableFuture.supplyAsync(handle, executor(IO))
                 .whenComplete((v, throwable) -> {
                     if (throwable == null) {
                         success.accept(v);
@@ -38,7 +122,7 @@ public class AsyncUtil {
 
     public static <T, V> CompletableFuture<V> handle(T obj, Function<T, V> handle, Consumer<V> resultHandle,
                                                      Consumer<Throwable> exception) {
-        return CompletableFuture.supplyAsync(() -> handle.apply(obj), cachedThreadPool)
+        return CompletableFuture.supplyAsync(() -> handle.apply(obj), executor(IO))
                 .whenComplete((v, throwable) -> {
                     if (throwable == null) {
                         resultHandle.accept(v);
@@ -49,7 +133,7 @@ public class AsyncUtil {
     }
 
     public static <V> CompletableFuture<Void> handle(V obj, Consumer<V> handle, Consumer<Throwable> exception) {
-        return CompletableFuture.runAsync(() -> handle.accept(obj), cachedThreadPool)
+        return CompletableFuture.runAsync(() -> handle.accept(obj), executor(IO))
                 .whenComplete((v, throwable) -> {
                     if (throwable != null) {
                         exception.accept(throwable);
@@ -58,40 +142,50 @@ public class AsyncUtil {
     }
 
     public static CompletableFuture<Void> handle(Runnable runnable) {
-        return CompletableFuture.runAsync(runnable, cachedThreadPool);
+        return CompletableFuture.runAsync(runnable, executor(IO));
     }
 
     /**
-     * 添加一个定时器
+     * 添加一个固定延迟的定时器，每次执行结束后等待period再执行下一次，同一任务不会并发执行
      *
      * @param runnable 定时任务
-     * @param delay    延迟
-     * @param period   周期
+     * @param delay    首次执行时间
+     * @param period   间隔（毫秒）
+     * @return 可取消的句柄
      */
-    public static void addTimerTask(Runnable runnable, Date delay, long period) {
-        TimerTask task = new TimerTask() {
-            public void run() {
-                runnable.run();
-            }
-        };
-        timer.schedule(task, delay, period);
+    public static TimerHandle addTimerTask(Runnable runnable, Date delay, long period) {
+        return timer.scheduleWithFixedDelay(runnable, delay.getTime() - System.currentTimeMillis(), period,
+                TimeUnit.MILLISECONDS);
     }
 
+    /**
+     * 添加一个TimerTask定时器，通过{@link TimerTask#cancel()}停止
+     * <p>
+     * TimerTask的取消状态只有{@link Timer}能看到，因此仍由{@link Timer}调度：固定延迟，在单独的线程中执行
+     */
     public static void addTimerTask(TimerTask task, Date delay, long period) {
-        timer.schedule(task, delay, period);
+        LegacyTimer.TIMER.schedule(task, delay, period);
     }
 
     /**
-     * 添加一个即刻定时器
+     * 添加一个即刻定时器，执行方式同{@link #addTimerTask(Runnable, Date, long)}
      *
      * @param runnable 定时任务
-     * @param period   周期
+     * @param period   间隔（毫秒）
      */
-    public static void addTimerTask(Runnable runnable, long period) {
-        addTimerTask(runnable, new Date(), period);
+    public static TimerHandle addTimerTask(Runnable runnable, long period) {
+        return timer.scheduleWithFixedDelay(runnable, 0, period, TimeUnit.MILLISECONDS);
     }
 
     private static void stop() {
-        cachedThreadPool.shutdown();
+        timer.stop();
+        executors.values().forEach(ProfiledExecutor::shutdown);
+    }
+
+    /**
+     * 首次添加TimerTask时才创建线程
+     */
+    private static final class LegacyTimer {
+        private static final Timer TIMER = new Timer("async-legacy-timer", true);
     }
 }
@@ -1,10 +1,26 @@
 package zdl.util.common;
 
+import zdl.util.common.async.HashedWheelTimer;
+import zdl.util.common.async.LatencyTracker;
+import zdl.util.common.async.RetryPolicy;
+import zdl.util.common.async.TimerHandle;
+
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiConsumer;
+import java.util.function.Supplier;
 
 /**
  * CompletableFuture辅助类
+ * <p>
+ * 延迟、超时、重试与对冲都由{@link AsyncUtil#timer()}的时间轮调度，等待期间不占用任何线程
  *
  * Created by ZDLegend on 2019/12/26 13:52
  */
@@ -34,16 +50,242 @@ public class CompletableFutureUtil {
      * @return 返回上一个future的返回值
      */
     public static <T> CompletableFuture<T> waite(long timeMillis, T t) {
-        return CompletableFuture.supplyAsync(() -> {
-            System.out.println("waite " + timeMillis + " ms");
-            try {
-                Thread.sleep(timeMillis);
-            } catch (InterruptedException e) {
-                //todo: 中断异常处理
-                e.printStackTrace();
+        return delay(timeMillis, TimeUnit.MILLISECONDS, t);
+    }
+
+    public static CompletableFuture<Void> delay(long delay, TimeUnit unit) {
+        return delay(delay, unit, null);
+    }
+
+    /**
+     * @return delay之后以value完成的future，取消future时同时取消定时
+     */
+    public static <T> CompletableFuture<T> delay(long delay, TimeUnit unit, T value) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        TimerHandle handle = timer().schedule(() -> future.complete(value), delay, unit);
+        future.whenComplete((v, e) -> handle.cancel());
+        return future;
+    }
+
+    /**
+     * future在timeout内未完成时以{@link TimeoutException}完成，future完成后定时随之取消
+     *
+     * @return future本身
+     */
+    public static <T> CompletableFuture<T> orTimeout(CompletableFuture<T> future, long timeout, TimeUnit unit) {
+        if (!future.isDone()) {
+            TimerHandle handle = timer().schedule(() -> future.completeExceptionally(
+                    new TimeoutException("超时" + timeout + " " + unit)), timeout, unit);
+            future.whenComplete((v, e) -> handle.cancel());
+        }
+        return future;
+    }
+
+    /**
+     * future在timeout内未完成时以fallback完成
+     *
+     * @return future本身
+     */
+    public static <T> CompletableFuture<T> completeOnTimeout(CompletableFuture<T> future, T fallback,
+                                                             long timeout, TimeUnit unit) {
+        if (!future.isDone()) {
+            TimerHandle handle = timer().schedule(() -> future.complete(fallback), timeout, unit);
+            future.whenComplete((v, e) -> handle.cancel());
+        }
+        return future;
+    }
+
+    /**
+     * 按重试策略执行action，失败后等待退避时间再次调用，直到成功、不满足{@link RetryPolicy#getRetryOn()}或达到最多次数
+     *
+     * @param action 每次调用返回一个新的future
+     * @return 最后一次调用的结果；取消返回的future会停止后续重试
+     */
+    public static <T> CompletableFuture<T> retry(Supplier<CompletableFuture<T>> action, RetryPolicy policy) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        attempt(action, policy, 1, result);
+        return result;
+    }
+
+    private static <T> void attempt(Supplier<CompletableFuture<T>> action, RetryPolicy policy, int attempt,
+                                    CompletableFuture<T> result) {
+        if (result.isDone()) {
+            return;
+        }
+        call(action).whenComplete((v, e) -> {
+            if (e == null) {
+                result.complete(v);
+                return;
+            }
+            Throwable cause = unwrap(e);
+            if (attempt >= policy.getMaxAttempts() || !policy.getRetryOn().test(cause)) {
+                result.completeExceptionally(cause);
+                return;
             }
-            System.out.println("waite end " + timeMillis + " ms");
-            return t;
+            TimerHandle handle = timer().schedule(() -> attempt(action, policy, attempt + 1, result),
+                    policy.delayMillis(attempt), TimeUnit.MILLISECONDS);
+            result.whenComplete((r, t) -> handle.cancel());
         });
     }
+
+    /**
+     * 对冲请求：先调用一次，若在tracker给出的分位耗时内未完成或已失败，再调用一次，取先成功的结果并取消另一个
+     * <p>
+     * 只有两次都失败时才失败；成功调用的耗时记入tracker
+     *
+     * @param action  每次调用返回一个新的future，须可安全地重复调用
+     * @param tracker 耗时分位数，如{@link LatencyTracker#p95(long, TimeUnit)}
+     */
+    public static <T> CompletableFuture<T> hedge(Supplier<CompletableFuture<T>> action, LatencyTracker tracker) {
+        Hedge<T> hedge = new Hedge<>(action, tracker);
+        hedge.launch();
+        TimerHandle handle = timer().schedule(hedge::launchHedge, tracker.quantileNanos(), TimeUnit.NANOSECONDS);
+        hedge.result.whenComplete((v, e) -> {
+            handle.cancel();
+            cancelAll(hedge.attempts);
+        });
+        return hedge.result;
+    }
+
+    /**
+     * 等待全部完成，任一失败时立即以该异常完成并取消其余
+     *
+     * @return 按输入顺序排列的结果
+     */
+    public static <T> CompletableFuture<List<T>> allOf(List<CompletableFuture<T>> futures) {
+        CompletableFuture<List<T>> result = new CompletableFuture<>();
+        AtomicInteger remaining = new AtomicInteger(futures.size());
+        if (futures.isEmpty()) {
+            result.complete(new ArrayList<>());
+            return result;
+        }
+        for (CompletableFuture<T> future : futures) {
+            future.whenComplete((v, e) -> {
+                if (e != null) {
+                    result.completeExceptionally(unwrap(e));
+                } else if (remaining.decrementAndGet() == 0) {
+                    List<T> values = new ArrayList<>(futures.size());
+                    futures.forEach(f -> values.add(f.join()));
+                    result.complete(values);
+                }
+            });
+        }
+        result.whenComplete((v, e) -> {
+            if (e != null) {
+                cancelAll(futures);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * 取第一个成功的结果并取消其余，全部失败时以最后一个异常完成，其余异常附为suppressed
+     * <p>
+     * 与{@link CompletableFuture#anyOf(CompletableFuture[])}不同，单个失败不会使结果失败
+     */
+    public static <T> CompletableFuture<T> anyOf(List<CompletableFuture<T>> futures) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        if (futures.isEmpty()) {
+            result.completeExceptionally(new IllegalArgumentException("futures为空"));
+            return result;
+        }
+        AtomicInteger remaining = new AtomicInteger(futures.size());
+        List<Throwable> errors = new ArrayList<>();
+        for (CompletableFuture<T> future : futures) {
+            future.whenComplete((v, e) -> {
+                if (e == null) {
+                    result.complete(v);
+                    return;
+                }
+                Throwable cause = unwrap(e);
+                synchronized (errors) {
+                    errors.add(cause);
+                }
+                if (remaining.decrementAndGet() == 0) {
+                    synchronized (errors) {
+                        errors.subList(0, errors.size() - 1).forEach(cause::addSuppressed);
+                    }
+                    result.completeExceptionally(cause);
+                }
+            });
+        }
+        result.whenComplete((v, e) -> cancelAll(futures));
+        return result;
+    }
+
+    private static <T> CompletableFuture<T> call(Supplier<CompletableFuture<T>> action) {
+        try {
+            return action.get();
+        } catch (Throwable e) {
+            CompletableFuture<T> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+    }
+
+    private static <T> void cancelAll(List<CompletableFuture<T>> futures) {
+        List<CompletableFuture<T>> copy;
+        synchronized (futures) {
+            copy = new ArrayList<>(futures);
+        }
+        copy.forEach(future -> future.cancel(true));
+    }
+
+    private static Throwable unwrap(Throwable e) {
+        while ((e instanceof CompletionException || e instanceof ExecutionException) && e.getCause() != null) {
+            e = e.getCause();
+        }
+        return e;
+    }
+
+    private static HashedWheelTimer timer() {
+        return AsyncUtil.timer();
+    }
+
+    /**
+     * 一次对冲请求的状态，对冲调用由定时或第一次调用失败触发，只启动一次
+     */
+    private static final class Hedge<T> {
+        private final Supplier<CompletableFuture<T>> action;
+        private final LatencyTracker tracker;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private final List<CompletableFuture<T>> attempts = new ArrayList<>(2);
+        private final AtomicInteger failures = new AtomicInteger();
+        private final AtomicBoolean hedged = new AtomicBoolean();
+
+        private Hedge(Supplier<CompletableFuture<T>> action, LatencyTracker tracker) {
+            this.action = action;
+            this.tracker = tracker;
+        }
+
+        private void launchHedge() {
+            if (!result.isDone() && hedged.compareAndSet(false, true)) {
+                launch();
+            }
+        }
+
+        private void launch() {
+            long start = System.nanoTime();
+            CompletableFuture<T> future = call(action);
+            synchronized (attempts) {
+                attempts.add(future);
+            }
+            if (result.isDone()) {
+                //结果在启动期间已完成，cancelAll可能没有看到这次调用
+                future.cancel(true);
+                return;
+            }
+            future.whenComplete((v, e) -> {
+                if (e == null) {
+                    tracker.record(System.nanoTime() - start);
+                    result.complete(v);
+                } else if (failures.incrementAndGet() == 2) {
+                    result.completeExceptionally(unwrap(e));
+                } else {
+                    //第一次调用在对冲时间前失败时立即发起对冲，已发起时等待对冲结果
+                    launchHedge();
+                }
+            });
+        }
+    }
 }
@@ -0,0 +1,74 @@
+package zdl.util.common;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * {@link RecordIdGenerator#reserve(int)}预留的一段连续id，按递增顺序迭代，非线程安全
+ * <p>
+ * 计数器跨秒时序列号自然进位到下一秒，因此整段id都由起始计数值加偏移得到
+ *
+ * @author ZDLegend
+ * @version 1.0
+ * @date 2026/10/17/ 13:40
+ */
+public class RecordIdRange implements PrimitiveIterator.OfLong {
+
+    private final long prefix;
+    private final long first;
+    private final int size;
+
+    private int position;
+
+    RecordIdRange(long prefix, long first, int size) {
+        this.prefix = prefix;
+        this.first = first;
+        this.size = size;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return position < size;
+    }
+
+    @Override
+    public long nextLong() {
+        if (position >= size) {
+            throw new NoSuchElementException();
+        }
+        return get(position++);
+    }
+
+    /**
+     * @param index 段内下标，[0, size)
+     * @return 第index个id，与迭代位置无关
+     */
+    public long get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index: " + index + ", size: " + size);
+        }
+        return prefix | ((first + index) & RecordIdGenerator.COUNTER_MASK);
+    }
+
+    /**
+     * @return 整段id，与迭代位置无关
+     */
+    public long[] toArray() {
+        long[] ids = new long[size];
+        for (int i = 0; i < size; i++) {
+            ids[i] = prefix | ((first + i) & RecordIdGenerator.COUNTER_MASK);
+        }
+        return ids;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return 尚未迭代的个数
+     */
+    public int remaining() {
+        return size - position;
+    }
+}
@@ -0,0 +1,104 @@
+package zdl.util.common.async;
+
+/**
+ * 执行器指标快照，计数与耗时从执行器创建起累计
+ *
+ * @author ZDLegend
+ * @version 1.0
+ * @date 2026/10/17/ 14:00
+ */
+public class ExecutorMetrics {
+
+    private final String name;
+    private final int poolSize;
+    private final int activeThreads;
+    private final int queueDepth;
+    private final long submitted;
+    private final long completed;
+    private final long rejected;
+    private final long avgWaitMicros;
+    private final long maxWaitMicros;
+    private final long avgRunMicros;
+    private final long maxRunMicros;
+
+    ExecutorMetrics(String name, int poolSize, int activeThreads, int queueDepth, long submitted, long completed,
+                    long rejected, long avgWaitMicros, long maxWaitMicros, long avgRunMicros, long maxRunMicros) {
+        this.name = name;
+        this.poolSize = poolSize;
+        this.activeThreads = activeThreads;
+        this.queueDepth = queueDepth;
+        this.submitted = submitted;
+        this.completed = completed;
+        this.rejected = rejected;
+        this.avgWaitMicros = avgWaitMicros;
+        this.maxWaitMicros = maxWaitMicros;
+        this.avgRunMicros = avgRunMicros;
+        this.maxRunMicros = maxRunMicros;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 当前线程数
+     */
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    /**
+     * 正在执行任务的线程数
+     */
+    public int getActiveThreads() {
+        return activeThreads;
+    }
+
+    /**
+     * 已提交未开始的任务数
+     */
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    public long getSubmitted() {
+        return submitted;
+    }
+
+    public long getCompleted() {
+        return completed;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    /**
+     * 任务从提交到开始执行的平均等待时间
+     */
+    public long getAvgWaitMicros() {
+        return avgWaitMicros;
+    }
+
+    public long getMaxWaitMicros() {
+        return maxWaitMicros;
+    }
+
+    /**
+     * 任务平均执行时间
+     */
+    public long getAvgRunMicros() {
+        return avgRunMicros;
+    }
+
+    public long getMaxRunMicros() {
+        return maxRunMicros;
+    }
+
+    @Override
+    public String toString() {
+        return name + "{pool=" + poolSize + ", active=" + activeThreads + ", queue=" + queueDepth
+                + ", submitted=" + submitted + ", completed=" + completed + ", rejected=" + rejected
+                + ", wait=" + avgWaitMicros + "/" + maxWaitMicros + "us, run=" + avgRunMicros + "/" + maxRunMicros + "us}";
+    }
+}
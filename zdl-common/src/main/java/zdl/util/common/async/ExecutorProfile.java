@@ -0,0 +1,100 @@
+package zdl.util.common.async;
+
+/**
+ * 命名执行器配置
+ * <ul>
+ *     <li>{@link Type#WORK_STEALING}：ForkJoinPool，线程数固定为parallelism，适合不阻塞的计算任务</li>
+ *     <li>{@link Type#ELASTIC}：线程按需创建到maxThreads，空闲keepAliveSeconds后回收，适合阻塞IO任务</li>
+ * </ul>
+ * 两种执行器都以queueCapacity限制已提交未开始的任务数，超出后按{@link RejectionPolicy}处理
+ *
+ * @author ZDLegend
+ * @version 1.0
+ * @date 2026/10/17/ 14:00
+ */
+public class ExecutorProfile {
+
+    public enum Type {
+        WORK_STEALING,
+        ELASTIC
+    }
+
+    private final String name;
+    private final Type type;
+    private int threads;
+    private int queueCapacity;
+    private long keepAliveSeconds = 60;
+    private RejectionPolicy rejectionPolicy = RejectionPolicy.ABORT;
+
+    public ExecutorProfile(String name, Type type, int threads, int queueCapacity) {
+        this.name = name;
+        this.type = type;
+        this.threads = threads;
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * @return 计算任务配置：线程数为CPU核数，最多排队1024 * 核数个任务
+     */
+    public static ExecutorProfile cpu(String name) {
+        int processors = Runtime.getRuntime().availableProcessors();
+        return new ExecutorProfile(name, Type.WORK_STEALING, processors, 1024 * processors);
+    }
+
+    /**
+     * @return IO任务配置：最多10 * CPU核数个线程，最多排队10000个任务
+     */
+    public static ExecutorProfile io(String name) {
+        return new ExecutorProfile(name, Type.ELASTIC, 10 * Runtime.getRuntime().availableProcessors(), 10000);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * WORK_STEALING为并行度，ELASTIC为最大线程数
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    public ExecutorProfile setThreads(int threads) {
+        this.threads = threads;
+        return this;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public ExecutorProfile setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+        return this;
+    }
+
+    /**
+     * 仅ELASTIC，空闲线程的存活时间
+     */
+    public long getKeepAliveSeconds() {
+        return keepAliveSeconds;
+    }
+
+    public ExecutorProfile setKeepAliveSeconds(long keepAliveSeconds) {
+        this.keepAliveSeconds = keepAliveSeconds;
+        return this;
+    }
+
+    public RejectionPolicy getRejectionPolicy() {
+        return rejectionPolicy;
+    }
+
+    public ExecutorProfile setRejectionPolicy(RejectionPolicy rejectionPolicy) {
+        this.rejectionPolicy = rejectionPolicy;
+        return this;
+    }
+}
@@ -0,0 +1,421 @@
+package zdl.util.common.async;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 哈希时间轮定时器
+ * <p>
+ * 一个ticker线程每tickDuration推进一格，任务按到期时间挂在对应格子的双向链表上，超过一圈的任务记录剩余圈数：
+ * <ul>
+ *     <li>添加与取消都只是放入无锁队列，由ticker在下一格时挂入或摘除，O(1)且不与ticker竞争锁</li>
+ *     <li>到期的任务交给executor执行，ticker线程不执行任务，慢任务或抛异常的任务不影响其他定时；
+ *     executor拒绝时交给单独的溢出线程执行</li>
+ *     <li>精度为tickDuration，任务最多晚一格执行</li>
+ * </ul>
+ * 支持一次性任务、固定频率任务与固定延迟任务。周期任务在本次执行结束后才挂入下一次，同一任务不会并发执行：
+ * 固定频率任务的下次到期时间按上次到期时间加周期计算，执行慢于周期时后续执行推迟；
+ * 固定延迟任务按本次结束时间加周期计算，同{@link java.util.Timer#schedule(java.util.TimerTask, long, long)}
+ *
+ * @author ZDLegend
+ * @version 1.0
+ * @date 2026/10/17/ 15:00
+ */
+public class HashedWheelTimer {
+
+    private static final int INIT = 0;
+    private static final int STARTED = 1;
+    private static final int STOPPED = 2;
+
+    private final long tickNanos;
+    private final Bucket[] wheel;
+    private final int mask;
+    private final Executor executor;
+    private final ThreadPoolExecutor overflow;
+    private final Thread ticker;
+
+    private final AtomicInteger state = new AtomicInteger(INIT);
+    private final AtomicLong pending = new AtomicLong();
+    private final Queue<WheelTimeout> additions = new ConcurrentLinkedQueue<>();
+    private final Queue<WheelTimeout> cancellations = new ConcurrentLinkedQueue<>();
+
+    /**
+     * ticker启动时刻，deadline均为相对该时刻的纳秒数，写入后ready置为true
+     */
+    private long startNanos;
+    private volatile boolean ready;
+    private long tick;
+
+    /**
+     * @param name          ticker线程名
+     * @param tickDuration  每格时长，即定时精度
+     * @param unit          tickDuration的单位
+     * @param ticksPerWheel 格数，向上取2的幂；一圈时长内的任务不需要计算圈数
+     * @param executor      到期任务的执行器
+     */
+    public HashedWheelTimer(String name, long tickDuration, TimeUnit unit, int ticksPerWheel, Executor executor) {
+        if (tickDuration <= 0) {
+            throw new IllegalArgumentException("tickDuration须大于0：" + tickDuration);
+        }
+        if (ticksPerWheel <= 0 || ticksPerWheel > 1 << 30) {
+            throw new IllegalArgumentException("ticksPerWheel须在(0, 2^30]之间：" + ticksPerWheel);
+        }
+        this.tickNanos = Math.max(unit.toNanos(tickDuration), TimeUnit.MILLISECONDS.toNanos(1));
+        int size = Integer.highestOneBit(((ticksPerWheel - 1) << 1) | 1);
+        this.wheel = new Bucket[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new Bucket();
+        }
+        this.mask = size - 1;
+        this.executor = executor;
+        this.overflow = new ThreadPoolExecutor(1, 1, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, name + "-overflow");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.overflow.allowCoreThreadTimeOut(true);
+        this.ticker = new Thread(this::work, name);
+        this.ticker.setDaemon(true);
+    }
+
+    /**
+     * 一次性任务
+     *
+     * @param task  任务
+     * @param delay 延迟，不大于0时在下一格执行
+     * @param unit  delay的单位
+     * @return 可取消的句柄
+     */
+    public TimerHandle schedule(Runnable task, long delay, TimeUnit unit) {
+        return add(task, unit.toNanos(delay), 0, false);
+    }
+
+    /**
+     * 固定频率任务，任务抛出的异常交给执行线程的UncaughtExceptionHandler，不影响后续执行；
+     * 本次结束后才挂入下一次，落后时每格追赶一次
+     *
+     * @param task         任务
+     * @param initialDelay 首次延迟
+     * @param period       周期，须大于0
+     * @param unit         时间单位
+     * @return 可取消的句柄
+     */
+    public TimerHandle scheduleAtFixedRate(Runnable task, long initialDelay, long period, TimeUnit unit) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("period须大于0：" + period);
+        }
+        return add(task, unit.toNanos(initialDelay), unit.toNanos(period), false);
+    }
+
+    /**
+     * 固定延迟任务，每次执行结束后等待delay再执行下一次，异常处理同{@link #scheduleAtFixedRate}
+     *
+     * @param task         任务
+     * @param initialDelay 首次延迟
+     * @param delay        两次执行的间隔，须大于0
+     * @param unit         时间单位
+     * @return 可取消的句柄
+     */
+    public TimerHandle scheduleWithFixedDelay(Runnable task, long initialDelay, long delay, TimeUnit unit) {
+        if (delay <= 0) {
+            throw new IllegalArgumentException("delay须大于0：" + delay);
+        }
+        return add(task, unit.toNanos(initialDelay), unit.toNanos(delay), true);
+    }
+
+    /**
+     * @return 已添加且尚未到期或取消的任务数
+     */
+    public long pendingTimeouts() {
+        return pending.get();
+    }
+
+    /**
+     * 停止ticker，未到期的任务不再执行
+     */
+    public void stop() {
+        if (state.getAndSet(STOPPED) == STARTED) {
+            ticker.interrupt();
+        }
+        overflow.shutdown();
+    }
+
+    private TimerHandle add(Runnable task, long delayNanos, long periodNanos, boolean fixedDelay) {
+        start();
+        WheelTimeout timeout = new WheelTimeout(task, deadline(Math.max(delayNanos, 0)), periodNanos, fixedDelay);
+        pending.incrementAndGet();
+        additions.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * @return 从现在起delayNanos后的deadline，溢出时（delay接近Long.MAX_VALUE）按永不到期处理
+     */
+    private long deadline(long delayNanos) {
+        long deadline = System.nanoTime() - startNanos + delayNanos;
+        return delayNanos > 0 && deadline < 0 ? Long.MAX_VALUE : deadline;
+    }
+
+    private void start() {
+        switch (state.get()) {
+            case INIT:
+                if (state.compareAndSet(INIT, STARTED)) {
+                    startNanos = System.nanoTime();
+                    ready = true;
+                    ticker.start();
+                }
+                break;
+            case STARTED:
+                break;
+            default:
+                throw new IllegalStateException("定时器已停止");
+        }
+        while (!ready) {
+            //等待启动线程写入startNanos，只会在首次添加的并发竞争中发生
+            Thread.onSpinWait();
+        }
+    }
+
+    private void work() {
+        while (state.get() == STARTED) {
+            long deadline = waitForNextTick();
+            if (deadline < 0) {
+                continue;
+            }
+            Bucket bucket = wheel[(int) (tick & mask)];
+            removeCancelled();
+            transferAdditions();
+            bucket.expire(deadline);
+            tick++;
+        }
+    }
+
+    /**
+     * @return 当前格的结束时刻，被中断时返回-1
+     */
+    private long waitForNextTick() {
+        long deadline = tickNanos * (tick + 1);
+        while (true) {
+            long now = System.nanoTime() - startNanos;
+            long sleepMillis = (deadline - now + 999_999) / 1_000_000;
+            if (sleepMillis <= 0) {
+                return now;
+            }
+            try {
+                Thread.sleep(sleepMillis);
+            } catch (InterruptedException e) {
+                if (state.get() == STOPPED) {
+                    return -1;
+                }
+            }
+        }
+    }
+
+    private void transferAdditions() {
+        //每格最多挂入10万个，避免添加过快时ticker无法推进
+        for (int i = 0; i < 100_000; i++) {
+            WheelTimeout timeout = additions.poll();
+            if (timeout == null) {
+                return;
+            }
+            if (timeout.state == WheelTimeout.CANCELLED) {
+                continue;
+            }
+            place(timeout);
+        }
+    }
+
+    private void place(WheelTimeout timeout) {
+        long calculated = timeout.deadline / tickNanos;
+        timeout.remainingRounds = (calculated - tick) / wheel.length;
+        //已经过期的任务挂在当前格，本格就会执行
+        long ticks = Math.max(calculated, tick);
+        wheel[(int) (ticks & mask)].add(timeout);
+    }
+
+    private void removeCancelled() {
+        WheelTimeout timeout;
+        while ((timeout = cancellations.poll()) != null) {
+            if (timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+            }
+        }
+    }
+
+    private void dispatch(WheelTimeout timeout) {
+        try {
+            executor.execute(timeout);
+        } catch (RejectedExecutionException e) {
+            //丢弃会使等待该定时的future永远不完成，在ticker线程执行又会推迟其他定时
+            overflow.execute(timeout);
+        }
+        if (timeout.period == 0) {
+            pending.decrementAndGet();
+        }
+        //周期任务在执行结束后由WheelTimeout#rearm()重新挂入
+    }
+
+    private static void uncaught(Throwable e) {
+        Thread thread = Thread.currentThread();
+        thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+    }
+
+    /**
+     * 一格中的任务链表，只由ticker线程访问
+     */
+    private final class Bucket {
+        private WheelTimeout head;
+        private WheelTimeout tail;
+
+        private void add(WheelTimeout timeout) {
+            timeout.bucket = this;
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        private void expire(long deadline) {
+            WheelTimeout timeout = head;
+            while (timeout != null) {
+                WheelTimeout next = timeout.next;
+                if (timeout.remainingRounds <= 0 && timeout.deadline <= deadline) {
+                    remove(timeout);
+                    if (timeout.fire()) {
+                        dispatch(timeout);
+                    }
+                } else if (timeout.state == WheelTimeout.CANCELLED) {
+                    remove(timeout);
+                } else {
+                    timeout.remainingRounds--;
+                }
+                timeout = next;
+            }
+        }
+
+        private void remove(WheelTimeout timeout) {
+            if (timeout.bucket != this) {
+                return;
+            }
+            if (timeout.prev != null) {
+                timeout.prev.next = timeout.next;
+            }
+            if (timeout.next != null) {
+                timeout.next.prev = timeout.prev;
+            }
+            if (timeout == head) {
+                head = timeout.next;
+            }
+            if (timeout == tail) {
+                tail = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+    }
+
+    private final class WheelTimeout implements TimerHandle, Runnable {
+        private static final int WAITING = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+
+        private final Runnable task;
+        private final long period;
+        private final boolean fixedDelay;
+        private volatile int state = WAITING;
+
+        /**
+         * 周期任务执行期间由执行线程写入，经additions队列交还ticker
+         */
+        private long deadline;
+
+        /**
+         * 以下字段只由ticker线程访问
+         */
+        private long remainingRounds;
+        private Bucket bucket;
+        private WheelTimeout prev;
+        private WheelTimeout next;
+
+        private WheelTimeout(Runnable task, long deadline, long period, boolean fixedDelay) {
+            this.task = task;
+            this.deadline = deadline;
+            this.period = period;
+            this.fixedDelay = fixedDelay;
+        }
+
+        @Override
+        public boolean cancel() {
+            if (!STATE.compareAndSet(this, WAITING, CANCELLED)) {
+                return false;
+            }
+            pending.decrementAndGet();
+            cancellations.add(this);
+            return true;
+        }
+
+        /**
+         * @return 需要执行本次到期
+         */
+        private boolean fire() {
+            if (period > 0) {
+                return state == WAITING;
+            }
+            return STATE.compareAndSet(this, WAITING, EXPIRED);
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return state == CANCELLED;
+        }
+
+        @Override
+        public boolean isExpired() {
+            return state == EXPIRED;
+        }
+
+        @Override
+        public void run() {
+            try {
+                task.run();
+            } catch (Throwable e) {
+                uncaught(e);
+            }
+            if (period > 0) {
+                rearm();
+            }
+        }
+
+        /**
+         * 周期任务本次执行结束后计算下次到期时间并交给ticker挂入，取消后不再挂入；
+         * 挂入前被取消时由transferAdditions()丢弃，周期任务的计数已在cancel()中减少
+         */
+        private void rearm() {
+            if (state != WAITING) {
+                return;
+            }
+            if (fixedDelay) {
+                deadline = deadline(period);
+            } else {
+                long next = deadline + period;
+                deadline = next < 0 ? Long.MAX_VALUE : next;
+            }
+            additions.add(this);
+        }
+    }
+
+    private static final AtomicIntegerFieldUpdater<WheelTimeout> STATE =
+            AtomicIntegerFieldUpdater.newUpdater(WheelTimeout.class, "state");
+}
@@ -0,0 +1,78 @@
+package zdl.util.common.async;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 记录最近若干次调用的耗时并估算分位数，用于对冲请求的触发时间
+ * <p>
+ * 耗时写入环形数组，无锁；分位数每记录{@link #REFRESH_INTERVAL}次重新排序计算一次，其余时间直接返回缓存值
+ *
+ * @author ZDLegend
+ * @version 1.0
+ * @date 2026/10/17/ 16:00
+ */
+public class LatencyTracker {
+
+    static final int REFRESH_INTERVAL = 64;
+
+    private final double quantile;
+    private final long defaultNanos;
+    private final AtomicLongArray samples;
+    private final AtomicLong count = new AtomicLong();
+
+    private volatile long cachedNanos;
+
+    /**
+     * @param quantile     分位数，如0.95
+     * @param window       保留的最近样本数
+     * @param defaultValue 样本不足{@link #REFRESH_INTERVAL}个时使用的值
+     * @param unit         defaultValue的单位
+     */
+    public LatencyTracker(double quantile, int window, long defaultValue, TimeUnit unit) {
+        if (quantile <= 0 || quantile >= 1) {
+            throw new IllegalArgumentException("quantile须在(0, 1)之间：" + quantile);
+        }
+        this.quantile = quantile;
+        this.samples = new AtomicLongArray(Math.max(window, REFRESH_INTERVAL));
+        this.defaultNanos = unit.toNanos(defaultValue);
+        this.cachedNanos = defaultNanos;
+    }
+
+    /**
+     * @return 最近1024次的p95，样本不足时为defaultValue
+     */
+    public static LatencyTracker p95(long defaultValue, TimeUnit unit) {
+        return new LatencyTracker(0.95, 1024, defaultValue, unit);
+    }
+
+    public void record(long nanos) {
+        long n = count.getAndIncrement();
+        samples.set((int) (n % samples.length()), nanos);
+        if ((n + 1) % REFRESH_INTERVAL == 0) {
+            refresh((int) Math.min(n + 1, samples.length()));
+        }
+    }
+
+    /**
+     * @return 分位数估计（纳秒）
+     */
+    public long quantileNanos() {
+        return cachedNanos;
+    }
+
+    private void refresh(int size) {
+        long[] copy = new long[size];
+        for (int i = 0; i < size; i++) {
+            copy[i] = samples.get(i);
+        }
+        Arrays.sort(copy);
+        cachedNanos = copy[Math.min((int) Math.ceil(quantile * size) - 1, size - 1)];
+    }
+
+    public long getDefaultNanos() {
+        return defaultNanos;
+    }
+}
@@ -0,0 +1,166 @@
+package zdl.util.common.async;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 按{@link ExecutorProfile}创建的执行器，限制排队任务数并统计{@link ExecutorMetrics}
+ * <p>
+ * 排队数由执行器自身计数（提交时加1，开始执行时减1），因此ForkJoinPool的无界队列同样受queueCapacity限制
+ *
+ * @author ZDLegend
+ * @version 1.0
+ * @date 2026/10/17/ 14:00
+ */
+public class ProfiledExecutor implements Executor {
+
+    private final ExecutorProfile profile;
+    private final ExecutorService delegate;
+
+    private final AtomicInteger pending = new AtomicInteger();
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final LongAdder runNanos = new LongAdder();
+    private final LongAccumulator maxWaitNanos = new LongAccumulator(Math::max, 0);
+    private final LongAccumulator maxRunNanos = new LongAccumulator(Math::max, 0);
+
+    public ProfiledExecutor(ExecutorProfile profile) {
+        this.profile = profile;
+        this.delegate = profile.getType() == ExecutorProfile.Type.WORK_STEALING ? forkJoinPool(profile) : elasticPool(profile);
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        if (pending.incrementAndGet() > profile.getQueueCapacity()) {
+            pending.decrementAndGet();
+            reject(command, null);
+            return;
+        }
+        submitted.increment();
+        try {
+            delegate.execute(new TimedTask(command, System.nanoTime()));
+        } catch (RejectedExecutionException e) {
+            submitted.decrement();
+            pending.decrementAndGet();
+            reject(command, e);
+        }
+    }
+
+    private void reject(Runnable command, RejectedExecutionException cause) {
+        rejected.increment();
+        switch (profile.getRejectionPolicy()) {
+            case CALLER_RUNS:
+                if (!delegate.isShutdown()) {
+                    command.run();
+                    return;
+                }
+                break;
+            case DISCARD:
+                return;
+            default:
+                break;
+        }
+        RejectedExecutionException e = new RejectedExecutionException("执行器" + profile.getName() + "拒绝任务，排队数："
+                + pending.get() + "/" + profile.getQueueCapacity());
+        if (cause != null) {
+            e.initCause(cause);
+        }
+        throw e;
+    }
+
+    public ExecutorMetrics metrics() {
+        int poolSize;
+        int active;
+        if (delegate instanceof ForkJoinPool) {
+            poolSize = ((ForkJoinPool) delegate).getPoolSize();
+            active = ((ForkJoinPool) delegate).getActiveThreadCount();
+        } else {
+            poolSize = ((ThreadPoolExecutor) delegate).getPoolSize();
+            active = ((ThreadPoolExecutor) delegate).getActiveCount();
+        }
+        long done = completed.sum();
+        long avgWait = done == 0 ? 0 : waitNanos.sum() / done / 1000;
+        long avgRun = done == 0 ? 0 : runNanos.sum() / done / 1000;
+        return new ExecutorMetrics(profile.getName(), poolSize, active, Math.max(pending.get(), 0),
+                submitted.sum(), done, rejected.sum(),
+                avgWait, maxWaitNanos.get() / 1000, avgRun, maxRunNanos.get() / 1000);
+    }
+
+    public ExecutorProfile getProfile() {
+        return profile;
+    }
+
+    /**
+     * 不再接受新任务，已提交的任务继续执行
+     */
+    public void shutdown() {
+        delegate.shutdown();
+    }
+
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return delegate.awaitTermination(timeout, unit);
+    }
+
+    private static ExecutorService forkJoinPool(ExecutorProfile profile) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return new ForkJoinPool(profile.getThreads(), pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName(profile.getName() + "-" + threadNumber.incrementAndGet());
+            return thread;
+        }, null, true);
+    }
+
+    /**
+     * 核心线程数等于最大线程数并允许核心线程超时：线程先于排队创建，空闲后回收。
+     * 排队上限由{@link #pending}控制，这里的队列不设容量
+     */
+    private static ExecutorService elasticPool(ExecutorProfile profile) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(profile.getThreads(), profile.getThreads(),
+                profile.getKeepAliveSeconds(), TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, profile.getName() + "-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private final class TimedTask implements Runnable {
+        private final Runnable task;
+        private final long submitNanos;
+
+        private TimedTask(Runnable task, long submitNanos) {
+            this.task = task;
+            this.submitNanos = submitNanos;
+        }
+
+        @Override
+        public void run() {
+            long start = System.nanoTime();
+            pending.decrementAndGet();
+            waitNanos.add(start - submitNanos);
+            maxWaitNanos.accumulate(start - submitNanos);
+            try {
+                task.run();
+            } finally {
+                long elapsed = System.nanoTime() - start;
+                runNanos.add(elapsed);
+                maxRunNanos.accumulate(elapsed);
+                completed.increment();
+            }
+        }
+    }
+}
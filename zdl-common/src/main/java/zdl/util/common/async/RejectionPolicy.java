@@ -0,0 +1,28 @@
+package zdl.util.common.async;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * 执行器排队已满或已关闭时对新任务的处理方式
+ *
+ * @author ZDLegend
+ * @version 1.0
+ * @date 2026/10/17/ 14:00
+ */
+public enum RejectionPolicy {
+
+    /**
+     * 抛出{@link RejectedExecutionException}，CompletableFuture.supplyAsync等会直接抛给调用方
+     */
+    ABORT,
+
+    /**
+     * 在提交任务的线程中直接执行，自然地降低提交速度
+     */
+    CALLER_RUNS,
+
+    /**
+     * 丢弃任务，通过CompletableFuture提交时对应的future永远不会完成，仅用于可丢失的后台任务
+     */
+    DISCARD
+}
@@ -0,0 +1,103 @@
+package zdl.util.common.async;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * 重试策略：指数退避加随机抖动
+ * <p>
+ * 第n次重试前等待min(initialDelay * multiplier^(n-1), maxDelay)，再按jitter比例随机缩短，
+ * 如jitter为0.5时实际等待在[0.5, 1]倍之间，避免大量调用方同时重试
+ *
+ * @author ZDLegend
+ * @version 1.0
+ * @date 2026/10/17/ 16:00
+ */
+public class RetryPolicy {
+
+    private int maxAttempts = 3;
+    private long initialDelayMillis = 100;
+    private long maxDelayMillis = 10_000;
+    private double multiplier = 2;
+    private double jitter = 0.5;
+    private Predicate<Throwable> retryOn = e -> true;
+
+    /**
+     * @param maxAttempts 最多执行次数，包含第一次
+     */
+    public static RetryPolicy of(int maxAttempts, long initialDelay, TimeUnit unit) {
+        return new RetryPolicy()
+                .setMaxAttempts(maxAttempts)
+                .setInitialDelayMillis(unit.toMillis(initialDelay));
+    }
+
+    /**
+     * @param retry 第几次重试，从1开始
+     * @return 本次重试前的等待毫秒数
+     */
+    public long delayMillis(int retry) {
+        double delay = Math.min(initialDelayMillis * Math.pow(multiplier, retry - 1), maxDelayMillis);
+        return (long) (delay * (1 - jitter * ThreadLocalRandom.current().nextDouble()));
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public RetryPolicy setMaxAttempts(int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+        return this;
+    }
+
+    public long getInitialDelayMillis() {
+        return initialDelayMillis;
+    }
+
+    public RetryPolicy setInitialDelayMillis(long initialDelayMillis) {
+        this.initialDelayMillis = initialDelayMillis;
+        return this;
+    }
+
+    public long getMaxDelayMillis() {
+        return maxDelayMillis;
+    }
+
+    public RetryPolicy setMaxDelayMillis(long maxDelayMillis) {
+        this.maxDelayMillis = maxDelayMillis;
+        return this;
+    }
+
+    public double getMultiplier() {
+        return multiplier;
+    }
+
+    public RetryPolicy setMultiplier(double multiplier) {
+        this.multiplier = multiplier;
+        return this;
+    }
+
+    /**
+     * 抖动比例，[0, 1]
+     */
+    public double getJitter() {
+        return jitter;
+    }
+
+    public RetryPolicy setJitter(double jitter) {
+        this.jitter = jitter;
+        return this;
+    }
+
+    /**
+     * 异常是否重试，参数为去掉CompletionException包装后的异常
+     */
+    public Predicate<Throwable> getRetryOn() {
+        return retryOn;
+    }
+
+    public RetryPolicy setRetryOn(Predicate<Throwable> retryOn) {
+        this.retryOn = retryOn;
+        return this;
+    }
+}
@@ -0,0 +1,25 @@
+package zdl.util.common.async;
+
+/**
+ * {@link HashedWheelTimer}中的定时任务句柄
+ *
+ * @author ZDLegend
+ * @version 1.0
+ * @date 2026/10/17/ 15:00
+ */
+public interface TimerHandle {
+
+    /**
+     * 取消任务，已开始的本次执行不受影响，周期任务不再有后续执行
+     *
+     * @return 本次调用取消了任务时为true，任务已取消或一次性任务已到期时为false
+     */
+    boolean cancel();
+
+    boolean isCancelled();
+
+    /**
+     * @return 一次性任务已到期并交给执行器，周期任务始终为false
+     */
+    boolean isExpired();
+}
@@ -1,6 +1,8 @@
 package zdl.util.common.json;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -14,6 +16,7 @@ import javax.validation.ConstraintViolationException;
 import javax.validation.Validation;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
@@ -136,6 +139,20 @@ public class JsonUtils {
         }
     }
 
+    /**
+     * 创建以UTF-8写入out的流式生成器，writeObject等与{@link #writeValueAsString(Object)}的序列化配置一致
+     * <p>
+     * 生成器关闭时只刷新缓冲区，不关闭out
+     */
+    public static JsonGenerator createGenerator(OutputStream out) {
+        try {
+            return objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        } catch (IOException e) {
+            throw new JsonTransException(e);
+        }
+    }
+
     /**
      * 校检接送字符串参数是否符合实体规范
      */
@@ -0,0 +1,483 @@
+package zdl.util.easy.db;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiConsumer;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ObjLongConsumer;
+import java.util.function.Supplier;
+
+/**
+ * 结果集到JavaBean的行转换器
+ * <ul>
+ *     <li>列按名称匹配属性，忽略大小写与下划线（user_name匹配userName），没有对应属性的列忽略</li>
+ *     <li>属性优先通过setter写入，没有setter时直接写字段</li>
+ *     <li>每个类的属性解析一次；每种列名组合的列下标与写入方式解析一次，之后的结果集直接复用</li>
+ *     <li>构造器与int/long/double/引用类型的setter通过LambdaMetafactory生成接口实现，
+ *     其他情况使用MethodHandle；基本类型按下标以getInt等读取，不装箱，列值为null时保留默认值</li>
+ * </ul>
+ * <pre>
+ * try (Cursor&lt;User&gt; users = DBPoolsManage.cursor(sql, config, 1000, BeanRowMapper.of(User.class))) {
+ *     ...
+ * }
+ * </pre>
+ *
+ * @author ZDLegend
+ * @version 1.0
+ * @date 2026/10/17/ 10:00
+ */
+public final class BeanRowMapper<T> implements RowMapper<T> {
+
+    private static final ConcurrentMap<Class<?>, BeanMeta<?>> META_TABLE = new ConcurrentHashMap<>();
+
+    private final BeanMeta<T> meta;
+    private Plan<T> plan;
+
+    private BeanRowMapper(BeanMeta<T> meta) {
+        this.meta = meta;
+    }
+
+    /**
+     * @param type 目标类型，须有无参构造器
+     * @return 行转换器，不可在多个结果集之间共用
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> BeanRowMapper<T> of(Class<T> type) {
+        return new BeanRowMapper<>((BeanMeta<T>) META_TABLE.computeIfAbsent(type, BeanMeta::new));
+    }
+
+    @Override
+    public T mapRow(ResultSet rs) throws SQLException {
+        if (plan == null) {
+            plan = meta.plan(rs.getMetaData());
+        }
+        T bean = meta.constructor.get();
+        for (Binding binding : plan.bindings) {
+            binding.apply(rs, bean);
+        }
+        return bean;
+    }
+
+    /**
+     * 一个类的属性与构造器，以及按列名组合缓存的写入计划
+     */
+    private static final class BeanMeta<T> {
+        private final Supplier<T> constructor;
+        private final Map<String, Property> properties = new HashMap<>();
+        private final ConcurrentMap<List<String>, Plan<T>> plans = new ConcurrentHashMap<>();
+
+        private BeanMeta(Class<T> type) {
+            MethodHandles.Lookup lookup;
+            try {
+                lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+            } catch (IllegalAccessException e) {
+                throw new EasyDBException("无法访问" + type.getName(), e);
+            }
+            this.constructor = constructor(lookup, type);
+
+            for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+                for (Field field : c.getDeclaredFields()) {
+                    int modifiers = field.getModifiers();
+                    if (!Modifier.isStatic(modifiers) && !Modifier.isFinal(modifiers)) {
+                        addProperty(lookup, field, null, false);
+                    }
+                }
+            }
+            for (Method method : type.getMethods()) {
+                if (method.getName().length() > 3 && method.getName().startsWith("set")
+                        && method.getParameterCount() == 1 && !Modifier.isStatic(method.getModifiers())) {
+                    addProperty(lookup, null, method, true);
+                }
+            }
+        }
+
+        /**
+         * 不可访问的属性（如父类中的私有字段）忽略
+         */
+        private void addProperty(MethodHandles.Lookup lookup, Field field, Method method, boolean override) {
+            Property property;
+            try {
+                property = new Property(lookup, field, method);
+            } catch (IllegalAccessException e) {
+                return;
+            }
+            String name = normalize(method != null ? method.getName().substring(3) : field.getName());
+            if (override) {
+                properties.put(name, property);
+            } else {
+                properties.putIfAbsent(name, property);
+            }
+        }
+
+        private Plan<T> plan(ResultSetMetaData metaData) throws SQLException {
+            String[] labels = new String[metaData.getColumnCount()];
+            for (int i = 0; i < labels.length; i++) {
+                labels[i] = metaData.getColumnLabel(i + 1);
+            }
+            return plans.computeIfAbsent(Arrays.asList(labels), this::plan);
+        }
+
+        private Plan<T> plan(List<String> labels) {
+            List<Binding> bindings = new ArrayList<>();
+            for (int i = 0; i < labels.size(); i++) {
+                Property property = properties.get(normalize(labels.get(i)));
+                if (property != null) {
+                    bindings.add(property.binding(i + 1));
+                }
+            }
+            return new Plan<>(bindings.toArray(new Binding[0]));
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> Supplier<T> constructor(MethodHandles.Lookup lookup, Class<T> type) {
+            MethodHandle handle;
+            try {
+                handle = lookup.findConstructor(type, MethodType.methodType(void.class));
+            } catch (NoSuchMethodException | IllegalAccessException e) {
+                throw new EasyDBException(type.getName() + "没有无参构造器", e);
+            }
+            try {
+                CallSite site = LambdaMetafactory.metafactory(lookup, "get",
+                        MethodType.methodType(Supplier.class), MethodType.methodType(Object.class),
+                        handle, MethodType.methodType(type));
+                return (Supplier<T>) site.getTarget().invokeExact();
+            } catch (Throwable e) {
+                MethodHandle generic = handle.asType(MethodType.methodType(Object.class));
+                return () -> {
+                    try {
+                        return (T) generic.invokeExact();
+                    } catch (Throwable t) {
+                        throw new EasyDBException("创建" + type.getName() + "失败", t);
+                    }
+                };
+            }
+        }
+    }
+
+    private static final class Plan<T> {
+        private final Binding[] bindings;
+
+        private Plan(Binding[] bindings) {
+            this.bindings = bindings;
+        }
+    }
+
+    /**
+     * 一个可写属性：setter或字段
+     */
+    private static final class Property {
+        private final Class<?> type;
+        private final MethodHandles.Lookup lookup;
+        private final MethodHandle handle;
+        private final boolean setter;
+
+        private Property(MethodHandles.Lookup lookup, Field field, Method method) throws IllegalAccessException {
+            this.lookup = lookup;
+            if (method != null) {
+                this.type = method.getParameterTypes()[0];
+                this.handle = lookup.unreflect(method);
+                this.setter = true;
+            } else {
+                this.type = field.getType();
+                this.handle = lookup.unreflectSetter(field);
+                this.setter = false;
+            }
+        }
+
+        /**
+         * @param column 列下标，从1开始
+         */
+        private Binding binding(int column) {
+            if (type == int.class) {
+                ObjIntConsumer<Object> consumer = intSetter();
+                return (rs, bean) -> {
+                    int value = rs.getInt(column);
+                    if (value != 0 || !rs.wasNull()) {
+                        consumer.accept(bean, value);
+                    }
+                };
+            }
+            if (type == long.class) {
+                ObjLongConsumer<Object> consumer = longSetter();
+                return (rs, bean) -> {
+                    long value = rs.getLong(column);
+                    if (value != 0 || !rs.wasNull()) {
+                        consumer.accept(bean, value);
+                    }
+                };
+            }
+            if (type == double.class) {
+                ObjDoubleConsumer<Object> consumer = doubleSetter();
+                return (rs, bean) -> {
+                    double value = rs.getDouble(column);
+                    if (value != 0 || !rs.wasNull()) {
+                        consumer.accept(bean, value);
+                    }
+                };
+            }
+            if (type == boolean.class) {
+                MethodHandle h = exact(boolean.class);
+                return (rs, bean) -> {
+                    boolean value = rs.getBoolean(column);
+                    if (value || !rs.wasNull()) {
+                        try {
+                            h.invokeExact(bean, value);
+                        } catch (Throwable e) {
+                            throw writeFailed(e);
+                        }
+                    }
+                };
+            }
+            if (type == float.class) {
+                MethodHandle h = exact(float.class);
+                return (rs, bean) -> {
+                    float value = rs.getFloat(column);
+                    if (value != 0 || !rs.wasNull()) {
+                        try {
+                            h.invokeExact(bean, value);
+                        } catch (Throwable e) {
+                            throw writeFailed(e);
+                        }
+                    }
+                };
+            }
+            if (type == short.class) {
+                MethodHandle h = exact(short.class);
+                return (rs, bean) -> {
+                    short value = rs.getShort(column);
+                    if (value != 0 || !rs.wasNull()) {
+                        try {
+                            h.invokeExact(bean, value);
+                        } catch (Throwable e) {
+                            throw writeFailed(e);
+                        }
+                    }
+                };
+            }
+            if (type == byte.class) {
+                MethodHandle h = exact(byte.class);
+                return (rs, bean) -> {
+                    byte value = rs.getByte(column);
+                    if (value != 0 || !rs.wasNull()) {
+                        try {
+                            h.invokeExact(bean, value);
+                        } catch (Throwable e) {
+                            throw writeFailed(e);
+                        }
+                    }
+                };
+            }
+            if (type == char.class) {
+                MethodHandle h = exact(char.class);
+                return (rs, bean) -> {
+                    String value = rs.getString(column);
+                    if (value != null && !value.isEmpty()) {
+                        try {
+                            h.invokeExact(bean, value.charAt(0));
+                        } catch (Throwable e) {
+                            throw writeFailed(e);
+                        }
+                    }
+                };
+            }
+
+            BiConsumer<Object, Object> consumer = objectSetter();
+            ColumnReader reader = reader(type, column);
+            return (rs, bean) -> {
+                Object value = reader.read(rs);
+                if (value != null) {
+                    consumer.accept(bean, value);
+                }
+            };
+        }
+
+        private ObjIntConsumer<Object> intSetter() {
+            ObjIntConsumer<Object> consumer = lambda(ObjIntConsumer.class, int.class);
+            if (consumer != null) {
+                return consumer;
+            }
+            MethodHandle h = exact(int.class);
+            return (bean, value) -> {
+                try {
+                    h.invokeExact(bean, value);
+                } catch (Throwable e) {
+                    throw new EasyDBException("属性写入失败", e);
+                }
+            };
+        }
+
+        private ObjLongConsumer<Object> longSetter() {
+            ObjLongConsumer<Object> consumer = lambda(ObjLongConsumer.class, long.class);
+            if (consumer != null) {
+                return consumer;
+            }
+            MethodHandle h = exact(long.class);
+            return (bean, value) -> {
+                try {
+                    h.invokeExact(bean, value);
+                } catch (Throwable e) {
+                    throw new EasyDBException("属性写入失败", e);
+                }
+            };
+        }
+
+        private ObjDoubleConsumer<Object> doubleSetter() {
+            ObjDoubleConsumer<Object> consumer = lambda(ObjDoubleConsumer.class, double.class);
+            if (consumer != null) {
+                return consumer;
+            }
+            MethodHandle h = exact(double.class);
+            return (bean, value) -> {
+                try {
+                    h.invokeExact(bean, value);
+                } catch (Throwable e) {
+                    throw new EasyDBException("属性写入失败", e);
+                }
+            };
+        }
+
+        private BiConsumer<Object, Object> objectSetter() {
+            BiConsumer<Object, Object> consumer = lambda(BiConsumer.class, Object.class);
+            if (consumer != null) {
+                return consumer;
+            }
+            MethodHandle h = exact(Object.class);
+            return (bean, value) -> {
+                try {
+                    h.invokeExact(bean, value);
+                } catch (Throwable e) {
+                    throw new EasyDBException("属性写入失败", e);
+                }
+            };
+        }
+
+        /**
+         * 为setter生成函数式接口实现，泛型接口的参数在擦除后为Object，由生成的实现转换为属性类型
+         *
+         * @return 字段、不可访问的setter或生成失败时返回null
+         */
+        @SuppressWarnings("unchecked")
+        private <F> F lambda(Class<?> functional, Class<?> valueType) {
+            if (!setter || handle.type().returnType() != void.class) {
+                return null;
+            }
+            try {
+                CallSite site = LambdaMetafactory.metafactory(lookup, "accept",
+                        MethodType.methodType(functional),
+                        MethodType.methodType(void.class, Object.class, valueType),
+                        handle, handle.type());
+                return (F) site.getTarget().invoke();
+            } catch (Throwable e) {
+                return null;
+            }
+        }
+
+        /**
+         * @return 参数类型为(Object, valueType)、无返回值的MethodHandle，供invokeExact调用
+         */
+        private MethodHandle exact(Class<?> valueType) {
+            return handle.asType(MethodType.methodType(void.class, Object.class, valueType));
+        }
+    }
+
+    /**
+     * 按属性类型选择结果集读取方法，列值为null时返回null
+     */
+    private static ColumnReader reader(Class<?> type, int column) {
+        if (type == String.class) {
+            return rs -> rs.getString(column);
+        }
+        if (type == Integer.class) {
+            return rs -> {
+                int value = rs.getInt(column);
+                return rs.wasNull() ? null : value;
+            };
+        }
+        if (type == Long.class) {
+            return rs -> {
+                long value = rs.getLong(column);
+                return rs.wasNull() ? null : value;
+            };
+        }
+        if (type == Double.class) {
+            return rs -> {
+                double value = rs.getDouble(column);
+                return rs.wasNull() ? null : value;
+            };
+        }
+        if (type == Boolean.class) {
+            return rs -> {
+                boolean value = rs.getBoolean(column);
+                return rs.wasNull() ? null : value;
+            };
+        }
+        if (type == BigDecimal.class) {
+            return rs -> rs.getBigDecimal(column);
+        }
+        if (type == byte[].class) {
+            return rs -> rs.getBytes(column);
+        }
+        if (type == Timestamp.class || type == java.util.Date.class) {
+            return rs -> rs.getTimestamp(column);
+        }
+        if (type.isEnum()) {
+            return rs -> {
+                String value = rs.getString(column);
+                return value == null ? null : enumValue(type, value);
+            };
+        }
+        if (type == Object.class) {
+            return rs -> rs.getObject(column);
+        }
+        return rs -> rs.getObject(column, type);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object enumValue(Class<?> type, String value) {
+        return Enum.valueOf((Class) type, value);
+    }
+
+    private static String normalize(String name) {
+        return name.replace("_", "").toLowerCase(Locale.ROOT);
+    }
+
+    private static SQLException writeFailed(Throwable e) {
+        if (e instanceof RuntimeException) {
+            throw (RuntimeException) e;
+        }
+        if (e instanceof Error) {
+            throw (Error) e;
+        }
+        return new SQLException("属性写入失败", e);
+    }
+
+    @FunctionalInterface
+    private interface Binding {
+        void apply(ResultSet rs, Object bean) throws SQLException;
+    }
+
+    @FunctionalInterface
+    private interface ColumnReader {
+        Object read(ResultSet rs) throws SQLException;
+    }
+}
@@ -0,0 +1,184 @@
+package zdl.util.easy.db;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.rowset.RowSetProvider;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static zdl.util.easy.db.DBConstant.MYSQL;
+
+/**
+ * 基于服务端游标的查询结果迭代器
+ * <p>
+ * 结果按fetchSize分批从数据库拉取，内存占用与结果集总行数无关：
+ * <ul>
+ *     <li>PostgreSQL/Greenplum只有在关闭自动提交时才会使用游标，打开时关闭自动提交，关闭时恢复</li>
+ *     <li>MySQL使用{@link Integer#MIN_VALUE}作为fetchSize逐行流式读取</li>
+ * </ul>
+ * 迭代结束或调用{@link #close()}时释放结果集、语句与连接，未迭代完时必须显式关闭
+ *
+ * @author ZDLegend
+ * @version 1.0
+ * @date 2026/10/16/ 13:50
+ */
+public class Cursor<T> implements Iterator<T>, AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(Cursor.class);
+
+    private final Connection connection;
+    private final boolean restoreAutoCommit;
+    private final PreparedStatement statement;
+    private final ResultSet resultSet;
+    private final RowMapper<T> mapper;
+
+    private boolean fetched;
+    private boolean hasNext;
+    private boolean closed;
+
+    private Cursor(Connection connection, boolean restoreAutoCommit, PreparedStatement statement,
+                   ResultSet resultSet, RowMapper<T> mapper) {
+        this.connection = connection;
+        this.restoreAutoCommit = restoreAutoCommit;
+        this.statement = statement;
+        this.resultSet = resultSet;
+        this.mapper = mapper;
+    }
+
+    /**
+     * 在connection上执行查询并打开游标，打开失败时连接会被关闭
+     *
+     * @param connection 连接，归游标所有
+     * @param sql        sql模板与绑定值
+     * @param config     数据源
+     * @param fetchSize  每批拉取行数
+     * @param mapper     行转换器
+     * @return 游标
+     */
+    static <T> Cursor<T> open(Connection connection, PreparedSql sql, DatabaseConfig config,
+                              int fetchSize, RowMapper<T> mapper) throws SQLException {
+        boolean restoreAutoCommit = false;
+        PreparedStatement ps = null;
+        try {
+            if (DBConstant.isPostgres(config.getDbType()) && connection.getAutoCommit()) {
+                connection.setAutoCommit(false);
+                restoreAutoCommit = true;
+            }
+
+            ps = connection.prepareStatement(sql.getSql(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(MYSQL.equals(config.getDbType()) ? Integer.MIN_VALUE : fetchSize);
+            DBPoolsManage.setParams(ps, sql.getParams(), config);
+
+            return new Cursor<>(connection, restoreAutoCommit, ps, ps.executeQuery(), mapper);
+        } catch (SQLException | RuntimeException e) {
+            closeQuietly(ps);
+            release(connection, restoreAutoCommit);
+            throw e;
+        }
+    }
+
+    /**
+     * @return 不占用连接的空游标
+     */
+    static <T> Cursor<T> empty(RowMapper<T> mapper) throws SQLException {
+        return new Cursor<>(null, false, null, emptyResultSet(), mapper);
+    }
+
+    /**
+     * @return 不含任何行的结果集，用于结果必然为空时跳过数据库
+     */
+    static ResultSet emptyResultSet() throws SQLException {
+        return RowSetProvider.newFactory().createCachedRowSet();
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (closed) {
+            return false;
+        }
+
+        if (!fetched) {
+            try {
+                hasNext = resultSet.next();
+            } catch (SQLException e) {
+                close();
+                throw new EasyDBException(e);
+            }
+            fetched = true;
+            if (!hasNext) {
+                close();
+            }
+        }
+        return hasNext;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        fetched = false;
+        try {
+            return mapper.mapRow(resultSet);
+        } catch (SQLException e) {
+            close();
+            throw new EasyDBException(e);
+        }
+    }
+
+    /**
+     * 将游标转换为顺序流，流关闭时游标随之关闭，需配合try-with-resources使用
+     *
+     * @return 顺序流
+     */
+    public Stream<T> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this,
+                Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(this::close);
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        closeQuietly(resultSet);
+        closeQuietly(statement);
+        release(connection, restoreAutoCommit);
+    }
+
+    private static void release(Connection connection, boolean restoreAutoCommit) {
+        try {
+            if (restoreAutoCommit) {
+                connection.commit();
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            logger.warn("恢复连接自动提交失败", e);
+        } finally {
+            closeQuietly(connection);
+        }
+    }
+
+    private static void closeQuietly(AutoCloseable closeable) {
+        if (closeable == null) {
+            return;
+        }
+        try {
+            closeable.close();
+        } catch (Exception e) {
+            logger.warn("关闭数据库资源失败", e);
+        }
+    }
+}
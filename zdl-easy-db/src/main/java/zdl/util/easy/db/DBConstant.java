@@ -6,6 +6,7 @@ import zdl.util.easy.db.hikari.HikariDatabase;
 import java.lang.reflect.InvocationTargetException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * @author ZDLegend
@@ -20,17 +21,55 @@ public class DBConstant {
     public static final String HIKARI = "hikari";
     public static final String DRUID = "druid";
 
+    public static final String ORACLE = "oracle";
+    public static final String MYSQL = "mysql";
+    public static final String SQLSERVER = "sqlserver";
+    public static final String POSTGRESQL = "postgresql";
+    public static final String GREENPLUM = "greenplum";
+
+    //基于PostgreSQL协议的数据库
+    public static final Set<String> PG_FAMILY = Set.of(POSTGRESQL, GREENPLUM);
+
+    //支持GROUPING SETS/ROLLUP的数据库及其多字段分组标识函数，其他数据库以UNION ALL模拟
+    public static final Map<String, String> GROUPING_FUNCTION = Map.of(
+            POSTGRESQL, "GROUPING",
+            GREENPLUM, "GROUPING",
+            ORACLE, "GROUPING_ID",
+            SQLSERVER, "GROUPING_ID");
+
+    //返回[0,1)随机数的函数，不支持TABLESAMPLE的数据库以随机数过滤抽样，未列出的数据库使用RANDOM()
+    public static final Map<String, String> RANDOM_FUNCTION = Map.of(
+            MYSQL, "RAND()",
+            ORACLE, "DBMS_RANDOM.VALUE",
+            SQLSERVER, "RAND(CHECKSUM(NEWID()))");
+
+    //支持近似去重计数的数据库及其函数，其他数据库以HyperLogLog计算
+    public static final Map<String, String> APPROX_DISTINCT_FUNCTION = Map.of(
+            ORACLE, "APPROX_COUNT_DISTINCT",
+            SQLSERVER, "APPROX_COUNT_DISTINCT");
+
+    //32位无符号哈希表达式模板（%s为字段），没有近似去重函数的数据库以此在库内计算HyperLogLog寄存器；
+    //MySQL的CRC32对相近的值分布不均，取MD5的前32位
+    public static final Map<String, String> HASH32_FUNCTION = Map.of(
+            POSTGRESQL, "(CAST(hashtext(CAST(%s AS text)) AS bigint) & 4294967295)",
+            GREENPLUM, "(CAST(hashtext(CAST(%s AS text)) AS bigint) & 4294967295)",
+            MYSQL, "CAST(CONV(SUBSTRING(MD5(%s), 1, 8), 16, 10) AS UNSIGNED)");
+
     static {
-        DB_TABLE.put("oracle", new String[]{"oracle.jdbc.driver.OracleDriver", "jdbc:%s:thin:@%s:%d:orcl", "/* ping */ select 1 from dual"});
-        DB_TABLE.put("mysql", new String[]{"com.mysql.jdbc.Driver", "jdbc:%s://%s:%d/%s", "/* ping */ select 1"});
-        DB_TABLE.put("sqlserver", new String[]{"com.microsoft.sqlserver.jdbc.SQLServerDriver", "jdbc:%s://%s:%d;DatabaseName=%s", "/* ping */ select 1"});
-        DB_TABLE.put("postgresql", new String[]{"org.postgresql.Driver", "jdbc:%s://%s:%d/%s", "/* ping */ select 1"});
-        DB_TABLE.put("greenplum", new String[]{"org.postgresql.Driver", "jdbc:%s://%s:%d/%s", "/* ping */ select 1"});
+        DB_TABLE.put(ORACLE, new String[]{"oracle.jdbc.driver.OracleDriver", "jdbc:%s:thin:@%s:%d:orcl", "/* ping */ select 1 from dual"});
+        DB_TABLE.put(MYSQL, new String[]{"com.mysql.jdbc.Driver", "jdbc:%s://%s:%d/%s", "/* ping */ select 1"});
+        DB_TABLE.put(SQLSERVER, new String[]{"com.microsoft.sqlserver.jdbc.SQLServerDriver", "jdbc:%s://%s:%d;DatabaseName=%s", "/* ping */ select 1"});
+        DB_TABLE.put(POSTGRESQL, new String[]{"org.postgresql.Driver", "jdbc:%s://%s:%d/%s", "/* ping */ select 1"});
+        DB_TABLE.put(GREENPLUM, new String[]{"org.postgresql.Driver", "jdbc:%s://%s:%d/%s", "/* ping */ select 1"});
 
         POOL_TABLE.put(HIKARI, HikariDatabase.class);
         POOL_TABLE.put(DRUID, DruidDatabase.class);
     }
 
+    public static boolean isPostgres(String dbType) {
+        return PG_FAMILY.contains(dbType);
+    }
+
     public static DatabaseInterface initDBI(DatabaseConfig databaseConfig) {
         Class<? extends DatabaseInterface> clazz = POOL_TABLE.get(databaseConfig.getUsedPool());
         try {
@@ -1,13 +1,44 @@
 package zdl.util.easy.db;
 
+import org.apache.commons.dbutils.ResultSetHandler;
+import com.fasterxml.jackson.core.JsonGenerator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import zdl.util.common.CompletableFutureUtil;
+import zdl.util.common.json.JsonUtils;
+import zdl.util.easy.db.copy.CopyLoader;
+import zdl.util.easy.db.insert.BatchInsert;
+import zdl.util.easy.db.insert.BatchResult;
+import zdl.util.easy.db.metrics.PoolMetrics;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 
 /**
@@ -20,22 +51,319 @@ import java.util.concurrent.ConcurrentMap;
 public class DBPoolsManage {
     private static final Logger logger = LoggerFactory.getLogger(DBPoolsManage.class);
 
-    private static final ConcurrentMap<String, DatabaseInterface> POOLS_TABLE = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, PoolEntry> POOLS_TABLE = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, ThreadPoolExecutor> EXECUTORS_TABLE = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, ReplicaSet> REPLICAS_TABLE = new ConcurrentHashMap<>();
+
+    private static final long REAP_INTERVAL_MS = TimeUnit.MINUTES.toMillis(1);
+    private static final long REPLICA_CHECK_INTERVAL_MS = TimeUnit.SECONDS.toMillis(5);
+    private static final ScheduledExecutorService REAPER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "easy-db-pool-reaper");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * 连接池空闲回收时间，小于等于0时不回收
+     */
+    private static volatile long poolIdleTimeoutMs = TimeUnit.MINUTES.toMillis(30);
+
+    static {
+        REAPER.scheduleWithFixedDelay(DBPoolsManage::reapIdlePools, REAP_INTERVAL_MS, REAP_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        REAPER.scheduleWithFixedDelay(DBPoolsManage::checkReplicas, REPLICA_CHECK_INTERVAL_MS, REPLICA_CHECK_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
 
     private DBPoolsManage() {
     }
 
+    /**
+     * 获取数据源对应的连接池，同一{@link DatabaseConfig#getSingleton()}并发调用时只初始化一个连接池
+     *
+     * @param config 数据源
+     * @return 连接池
+     */
     public static DatabaseInterface getDBPool(DatabaseConfig config) {
         String key = config.getSingleton();
-        if (!POOLS_TABLE.containsKey(key)) {
-            DatabaseInterface database = DBConstant.initDBI(config);
-            POOLS_TABLE.put(key, database);
+        while (true) {
+            PoolEntry entry = getEntry(key, config);
+            DatabaseInterface database = initDatabase(key, entry);
+            if (database != null) {
+                return database;
+            }
+            //已被回收或关闭，重新注册
+            POOLS_TABLE.remove(key, entry);
+        }
+    }
+
+    /**
+     * 获取连接池并增加引用，引用未释放前连接池不会被空闲回收，须与{@link #release(DatabaseConfig)}成对调用
+     *
+     * @param config 数据源
+     * @return 连接池
+     */
+    public static DatabaseInterface acquire(DatabaseConfig config) {
+        String key = config.getSingleton();
+        while (true) {
+            PoolEntry entry = getEntry(key, config);
+            if (entry.retain()) {
+                DatabaseInterface database;
+                try {
+                    database = initDatabase(key, entry);
+                } catch (RuntimeException e) {
+                    entry.release();
+                    throw e;
+                }
+                if (database != null) {
+                    return database;
+                }
+            }
+            POOLS_TABLE.remove(key, entry);
+        }
+    }
+
+    /**
+     * 释放{@link #acquire(DatabaseConfig)}增加的引用
+     *
+     * @param config 数据源
+     */
+    public static void release(DatabaseConfig config) {
+        PoolEntry entry = POOLS_TABLE.get(config.getSingleton());
+        if (entry != null) {
+            entry.release();
+        }
+    }
+
+    /**
+     * 立即关闭数据源对应的连接池、副本连接池及异步线程池，无论是否仍有引用；之后的调用会重新创建连接池
+     *
+     * @param config 数据源
+     * @return 连接池是否存在
+     */
+    public static boolean closePool(DatabaseConfig config) {
+        String key = config.getSingleton();
+        closeReplicaPools(key);
+        shutdownExecutor(key);
+        PoolEntry entry = POOLS_TABLE.remove(key);
+        if (entry == null) {
+            return false;
+        }
+        entry.close();
+        logger.info("关闭连接池：{}", key);
+        return true;
+    }
+
+    /**
+     * 数据源配置（如密码、连接数）变化时使用新配置替换连接池，旧连接池及其副本连接池在替换后关闭
+     *
+     * @param config 新的数据源配置
+     */
+    public static void replacePool(DatabaseConfig config) {
+        String key = config.getSingleton();
+        PoolEntry old = POOLS_TABLE.put(key, new PoolEntry(config));
+        closeReplicaPools(key);
+        shutdownExecutor(key);
+        if (old != null) {
+            old.close();
+            logger.info("替换连接池：{}", key);
+        }
+    }
+
+    /**
+     * 关闭全部连接池
+     */
+    public static void closeAll() {
+        REPLICAS_TABLE.clear();
+        POOLS_TABLE.forEach((key, entry) -> {
+            if (POOLS_TABLE.remove(key, entry)) {
+                shutdownExecutor(key);
+                entry.close();
+            }
+        });
+    }
+
+    /**
+     * 设置连接池空闲回收时间：无引用、无活动连接且超过该时间未使用的连接池会被关闭，
+     * 超过该时间没有读请求的副本集合停止健康检查并关闭空闲的副本连接池
+     *
+     * @param idleTimeoutMs 空闲回收时间（毫秒），小于等于0时不回收
+     */
+    public static void setPoolIdleTimeout(long idleTimeoutMs) {
+        poolIdleTimeoutMs = idleTimeoutMs;
+    }
+
+    /**
+     * 获取全部已初始化连接池的指标
+     *
+     * @return 以{@link DatabaseConfig#getSingleton()}为键的指标快照
+     */
+    public static Map<String, PoolMetrics> getMetrics() {
+        Map<String, PoolMetrics> metrics = new LinkedHashMap<>();
+        POOLS_TABLE.forEach((key, entry) -> {
+            DatabaseInterface db = entry.peek();
+            if (db != null) {
+                metrics.put(key, db.getMetrics());
+            }
+        });
+        return metrics;
+    }
+
+    /**
+     * @return 全部已初始化连接池合并后的指标快照
+     */
+    public static PoolMetrics getTotalMetrics() {
+        return getMetrics().values().stream().reduce(PoolMetrics.empty("total"), PoolMetrics::merge);
+    }
+
+    /**
+     * @return 数据源连接池当前被借出的连接数，连接池未初始化时为0
+     */
+    static int getActiveCount(DatabaseConfig config) {
+        PoolEntry entry = POOLS_TABLE.get(config.getSingleton());
+        DatabaseInterface db = entry == null ? null : entry.peek();
+        return db == null ? 0 : db.getActiveCount();
+    }
+
+    private static PoolEntry getEntry(String key, DatabaseConfig config) {
+        PoolEntry entry = POOLS_TABLE.get(key);
+        if (entry == null) {
+            PoolEntry created = new PoolEntry(config);
+            entry = POOLS_TABLE.putIfAbsent(key, created);
+            if (entry == null) {
+                entry = created;
+            }
+        }
+        return entry;
+    }
+
+    private static DatabaseInterface initDatabase(String key, PoolEntry entry) {
+        try {
+            return entry.database();
+        } catch (RuntimeException e) {
+            //初始化失败时移除，下次调用重新初始化
+            POOLS_TABLE.remove(key, entry);
+            throw e;
+        }
+    }
+
+    private static void reapIdlePools() {
+        long idleTimeoutMs = poolIdleTimeoutMs;
+        if (idleTimeoutMs <= 0) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        //先移除没有读请求的副本集合，停止其健康检查，否则检查借出连接会使副本连接池一直处于使用中
+        REPLICAS_TABLE.forEach((key, replicas) -> {
+            if (replicas.isIdle(now, idleTimeoutMs) && REPLICAS_TABLE.remove(key, replicas)) {
+                logger.info("回收空闲副本集合：{}", replicas.getPrimary().getSingleton());
+                replicas.getReplicaConfigs().forEach(replica -> {
+                    PoolEntry entry = POOLS_TABLE.get(replica.getSingleton());
+                    if (entry != null) {
+                        //健康检查刷新了最近使用时间，只要求无引用、无活动连接；仍在使用的由之后的空闲回收处理
+                        reap(replica.getSingleton(), entry, now, 0);
+                    }
+                });
+            }
+        });
+        POOLS_TABLE.forEach((key, entry) -> reap(key, entry, now, idleTimeoutMs));
+    }
+
+    private static void reap(String key, PoolEntry entry, long now, long idleTimeoutMs) {
+        try {
+            if (entry.closeIfIdle(now, idleTimeoutMs)) {
+                POOLS_TABLE.remove(key, entry);
+                shutdownExecutor(key);
+                logger.info("回收空闲连接池：{}", key);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("回收空闲连接池失败：{}", key, e);
+        }
+    }
+
+    private static ReplicaSet getReplicaSet(DatabaseConfig config) {
+        if (config.getReplicas() == null || config.getReplicas().isEmpty()) {
+            return null;
+        }
+        return REPLICAS_TABLE.computeIfAbsent(config.getSingleton() + "|" + config.getReplicas(),
+                key -> new ReplicaSet(config));
+    }
+
+    /**
+     * 移除主库的副本集合并立即关闭副本连接池
+     */
+    private static void closeReplicaPools(String primaryKey) {
+        removeReplicaSets(primaryKey).forEach(replicas -> replicas.getReplicaConfigs().forEach(DBPoolsManage::closePool));
+    }
+
+    private static List<ReplicaSet> removeReplicaSets(String primaryKey) {
+        List<ReplicaSet> removed = new ArrayList<>();
+        REPLICAS_TABLE.forEach((key, replicas) -> {
+            if (replicas.getPrimary().getSingleton().equals(primaryKey) && REPLICAS_TABLE.remove(key, replicas)) {
+                removed.add(replicas);
+            }
+        });
+        return removed;
+    }
+
+    private static void checkReplicas() {
+        REPLICAS_TABLE.values().forEach(replicas -> {
+            try {
+                replicas.check();
+            } catch (RuntimeException e) {
+                logger.warn("副本检查失败：{}", replicas.getPrimary().getSingleton(), e);
+            }
+        });
+    }
+
+    private static void shutdownExecutor(String key) {
+        ThreadPoolExecutor executor = EXECUTORS_TABLE.remove(key);
+        if (executor != null) {
+            executor.shutdown();
         }
-        return POOLS_TABLE.get(key);
     }
 
+    /**
+     * 获取连接，借出前持有连接池引用，借出后由活动连接数阻止回收，取得的连接池不会在借出前被空闲回收关闭
+     *
+     * @param config 数据源
+     * @return 连接
+     */
     public static Connection getConnection(DatabaseConfig config) throws SQLException {
-        return getDBPool(config).getConnection();
+        String key = config.getSingleton();
+        while (true) {
+            PoolEntry entry = getEntry(key, config);
+            if (entry.retain()) {
+                try {
+                    DatabaseInterface database = initDatabase(key, entry);
+                    if (database != null) {
+                        return database.getConnection();
+                    }
+                } finally {
+                    entry.release();
+                }
+            }
+            POOLS_TABLE.remove(key, entry);
+        }
+    }
+
+    /**
+     * 获取只读连接：配置了{@link DatabaseConfig#getReplicas()}时从健康副本中选择活动连接最少的一个，
+     * 无健康副本或副本获取连接失败时回退到主库
+     *
+     * @param config 主库数据源
+     * @return 连接
+     */
+    public static Connection getReadConnection(DatabaseConfig config) throws SQLException {
+        ReplicaSet replicas = getReplicaSet(config);
+        DatabaseConfig replica = replicas == null ? null : replicas.choose();
+        if (replica != null) {
+            try {
+                return getConnection(replica);
+            } catch (SQLException | EasyDBException e) {
+                replicas.eject(replica, e);
+            }
+        }
+        return getConnection(config);
     }
 
     public static boolean execute(String sql, DatabaseConfig config) throws SQLException {
@@ -48,4 +376,333 @@ public class DBPoolsManage {
             }
         }
     }
+
+    /**
+     * 执行参数化sql语句
+     *
+     * @param sql    sql模板与绑定值
+     * @param config 数据源
+     * @return 同{@link PreparedStatement#execute()}
+     */
+    public static boolean execute(PreparedSql sql, DatabaseConfig config) throws SQLException {
+        try (Connection conn = getConnection(config);
+             PreparedStatement ps = conn.prepareStatement(sql.getSql())) {
+            setParams(ps, sql.getParams(), config);
+            return ps.execute();
+        }
+    }
+
+    /**
+     * 执行参数化查询语句，结果集由handler处理后返回，配置了副本时在副本上执行
+     *
+     * @param sql     sql模板与绑定值
+     * @param config  数据源
+     * @param handler 结果集处理
+     * @param <T>     返回值类型
+     * @return handler处理结果
+     */
+    public static <T> T query(PreparedSql sql, DatabaseConfig config, ResultSetHandler<T> handler)
+            throws SQLException {
+        if (sql.isAlwaysEmpty()) {
+            try (ResultSet rs = Cursor.emptyResultSet()) {
+                return handler.handle(rs);
+            }
+        }
+        try (Connection conn = getReadConnection(config);
+             PreparedStatement ps = conn.prepareStatement(sql.getSql())) {
+            setParams(ps, sql.getParams(), config);
+            try (ResultSet rs = ps.executeQuery()) {
+                return handler.handle(rs);
+            }
+        }
+    }
+
+    /**
+     * 异步执行参数化sql语句，超时时间为{@link DatabaseConfig#getTimeOutMs()}
+     *
+     * @see #executeAsync(PreparedSql, DatabaseConfig, long)
+     */
+    public static CompletableFuture<Boolean> executeAsync(PreparedSql sql, DatabaseConfig config) {
+        return executeAsync(sql, config, config.getTimeOutMs());
+    }
+
+    /**
+     * 异步执行参数化sql语句
+     * <p>
+     * 任务在数据源专用线程池中执行，线程数与{@link DatabaseConfig#getMaxConnection()}一致，
+     * 排队数超过{@link DatabaseConfig#getAsyncQueueSize()}时立即以{@link RejectedExecutionException}失败，
+     * 超时后以{@link java.util.concurrent.TimeoutException}失败，尚未开始执行的任务不再执行，
+     * 正在执行的语句通过{@link Statement#cancel()}取消；取消返回的future时同样取消正在执行的语句
+     *
+     * @param sql       sql模板与绑定值
+     * @param config    数据源
+     * @param timeoutMs 超时时间（毫秒），包含排队时间
+     * @return 同{@link PreparedStatement#execute()}
+     */
+    public static CompletableFuture<Boolean> executeAsync(PreparedSql sql, DatabaseConfig config, long timeoutMs) {
+        return supplyAsync(sql, config, timeoutMs, false, PreparedStatement::execute);
+    }
+
+    /**
+     * 异步执行参数化查询，超时时间为{@link DatabaseConfig#getTimeOutMs()}
+     *
+     * @see #queryAsync(PreparedSql, DatabaseConfig, ResultSetHandler, long)
+     */
+    public static <T> CompletableFuture<T> queryAsync(PreparedSql sql, DatabaseConfig config,
+                                                      ResultSetHandler<T> handler) {
+        return queryAsync(sql, config, handler, config.getTimeOutMs());
+    }
+
+    /**
+     * 异步执行参数化查询，执行方式同{@link #executeAsync(PreparedSql, DatabaseConfig, long)}
+     *
+     * @param sql       sql模板与绑定值
+     * @param config    数据源
+     * @param handler   结果集处理
+     * @param timeoutMs 超时时间（毫秒），包含排队时间
+     * @param <T>       返回值类型
+     * @return handler处理结果
+     */
+    public static <T> CompletableFuture<T> queryAsync(PreparedSql sql, DatabaseConfig config,
+                                                      ResultSetHandler<T> handler, long timeoutMs) {
+        if (sql.isAlwaysEmpty()) {
+            try {
+                return CompletableFuture.completedFuture(query(sql, config, handler));
+            } catch (SQLException | RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        return supplyAsync(sql, config, timeoutMs, true, ps -> {
+            try (ResultSet rs = ps.executeQuery()) {
+                return handler.handle(rs);
+            }
+        });
+    }
+
+    /**
+     * 在数据源专用线程池中借连接执行语句，超时后取消正在执行的语句
+     *
+     * @param read 是否使用{@link #getReadConnection(DatabaseConfig)}
+     */
+    private static <T> CompletableFuture<T> supplyAsync(PreparedSql sql, DatabaseConfig config, long timeoutMs,
+                                                        boolean read, SqlCallable<T> callable) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        //执行期间持有的语句，置空与取消在同一把锁下，避免取消已归还PSCache、被其他查询复用的语句
+        AtomicReference<Statement> running = new AtomicReference<>();
+        try {
+            getExecutor(config).execute(() -> {
+                if (future.isDone()) {
+                    return;
+                }
+                try (Connection conn = read ? getReadConnection(config) : getConnection(config);
+                     PreparedStatement ps = conn.prepareStatement(sql.getSql())) {
+                    setParams(ps, sql.getParams(), config);
+                    running.set(ps);
+                    try {
+                        if (!future.isDone()) {
+                            future.complete(callable.call(ps));
+                        }
+                    } finally {
+                        synchronized (running) {
+                            running.set(null);
+                        }
+                    }
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(new RejectedExecutionException(
+                    "数据库异步任务队列已满：" + config.getSingleton(), e));
+            return future;
+        }
+        CompletableFutureUtil.orTimeout(future, timeoutMs, TimeUnit.MILLISECONDS).whenComplete((v, e) -> {
+            if (e instanceof TimeoutException || e instanceof CancellationException) {
+                cancel(running, config);
+            }
+        });
+        return future;
+    }
+
+    private static void cancel(AtomicReference<Statement> running, DatabaseConfig config) {
+        synchronized (running) {
+            Statement statement = running.get();
+            if (statement == null) {
+                return;
+            }
+            try {
+                statement.cancel();
+            } catch (SQLException e) {
+                logger.warn("取消超时语句失败：{}", config.getSingleton(), e);
+            }
+        }
+    }
+
+    private static ThreadPoolExecutor getExecutor(DatabaseConfig config) {
+        return EXECUTORS_TABLE.computeIfAbsent(config.getSingleton(), key -> {
+            AtomicInteger threadNumber = new AtomicInteger();
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                    config.getMaxConnection(), config.getMaxConnection(),
+                    60, TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<>(config.getAsyncQueueSize()),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, "easy-db-async-" + threadNumber.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    },
+                    new ThreadPoolExecutor.AbortPolicy());
+            executor.allowCoreThreadTimeOut(true);
+            return executor;
+        });
+    }
+
+    /**
+     * 以服务端游标执行参数化查询，使用{@link DatabaseConfig#getFetchSize()}分批拉取
+     *
+     * @param sql    sql模板与绑定值
+     * @param config 数据源
+     * @return 游标，迭代结束或关闭时归还连接
+     */
+    public static Cursor<Row> cursor(PreparedSql sql, DatabaseConfig config) throws SQLException {
+        return cursor(sql, config, config.getFetchSize(), Row.mapper());
+    }
+
+    /**
+     * 以服务端游标执行参数化查询，配置了副本时在副本上执行
+     *
+     * @param sql       sql模板与绑定值
+     * @param config    数据源
+     * @param fetchSize 每批拉取行数
+     * @param mapper    行转换器
+     * @param <T>       行类型
+     * @return 游标，迭代结束或关闭时归还连接
+     */
+    public static <T> Cursor<T> cursor(PreparedSql sql, DatabaseConfig config, int fetchSize, RowMapper<T> mapper)
+            throws SQLException {
+        if (sql.isAlwaysEmpty()) {
+            return Cursor.empty(mapper);
+        }
+        return Cursor.open(getReadConnection(config), sql, config, fetchSize, mapper);
+    }
+
+    /**
+     * 以服务端游标执行参数化查询并返回惰性流，流须关闭以归还连接
+     * <pre>
+     * try (Stream&lt;Row&gt; rows = DBPoolsManage.stream(select.preparedSqlBuild(config), config)) {
+     *     rows.forEach(...);
+     * }
+     * </pre>
+     *
+     * @param sql    sql模板与绑定值
+     * @param config 数据源
+     * @return 惰性流
+     */
+    public static Stream<Row> stream(PreparedSql sql, DatabaseConfig config) throws SQLException {
+        return cursor(sql, config).stream();
+    }
+
+    public static <T> Stream<T> stream(PreparedSql sql, DatabaseConfig config, int fetchSize, RowMapper<T> mapper)
+            throws SQLException {
+        return cursor(sql, config, fetchSize, mapper).stream();
+    }
+
+    /**
+     * 以服务端游标执行参数化查询，将结果集直接写为json数组，不在内存中构造行对象
+     * <p>
+     * 第一行写出后立即刷新，之后每填满一次生成器缓冲区写出一次，内存占用与结果集总行数无关。
+     * 写出中途失败时out中可能已有不完整的json
+     *
+     * @param sql    sql模板与绑定值
+     * @param config 数据源，按{@link DatabaseConfig#getFetchSize()}分批拉取
+     * @param out    输出流，写完后刷新但不关闭
+     * @return 写出行数
+     * @see JsonRowWriter
+     */
+    public static long writeJson(PreparedSql sql, DatabaseConfig config, OutputStream out)
+            throws SQLException, IOException {
+        try (JsonGenerator generator = JsonUtils.createGenerator(out)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT)) {
+            generator.writeStartArray();
+            long rows = 0;
+            try (Cursor<JsonRowWriter> cursor = cursor(sql, config, config.getFetchSize(),
+                    new JsonRowWriter(generator))) {
+                while (cursor.hasNext()) {
+                    cursor.next();
+                    if (++rows == 1) {
+                        generator.flush();
+                    }
+                }
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            generator.writeEndArray();
+            return rows;
+        }
+    }
+
+    /**
+     * 批量写入{@link DatabaseConfig#getLongTableName()}，在一个连接上按批执行并按间隔提交
+     *
+     * @param insert 写入字段、冲突字段与批次配置
+     * @param rows   行数据，值顺序与{@link BatchInsert#getColumns()}一致
+     * @param config 数据源
+     * @return 写入统计
+     */
+    public static BatchResult batchInsert(BatchInsert insert, Iterable<Object[]> rows, DatabaseConfig config)
+            throws SQLException {
+        DatabaseInterface database = getDBPool(config);
+        boolean onDuplicateKey = DBConstant.MYSQL.equals(config.getDbType());
+        try (Connection conn = database.getConnection()) {
+            BatchResult result = insert.write(conn, rows, config, onDuplicateKey);
+            logger.info("批量写入{}：{}", config.getLongTableName(), result);
+            return result;
+        }
+    }
+
+    /**
+     * 开始一次COPY FROM STDIN导入，仅支持PostgreSQL/Greenplum
+     * <pre>
+     * try (CopyLoader&lt;T&gt; loader = DBPoolsManage.copyLoader(config, columns, t -&gt; new Object[]{...})) {
+     *     rows.forEach(loader::add);
+     *     loader.finish();
+     * }
+     * </pre>
+     *
+     * @param config    数据源，写入{@link DatabaseConfig#getLongTableName()}
+     * @param columns   导入字段
+     * @param extractor 从对象中按columns顺序取出字段值
+     * @param <T>       行对象类型
+     * @return 导入器，结束或关闭时归还连接
+     */
+    public static <T> CopyLoader<T> copyLoader(DatabaseConfig config, List<String> columns,
+                                               Function<T, Object[]> extractor) throws SQLException {
+        if (!DBConstant.isPostgres(config.getDbType())) {
+            throw new UnsupportedOperationException(config.getDbType() + "不支持COPY导入");
+        }
+        return CopyLoader.open(getConnection(config), config.getLongTableName(), columns, extractor,
+                config.getFetchSize() * 10);
+    }
+
+    /**
+     * 按顺序设置绑定值
+     * <p>
+     * PostgreSQL协议下字符串以未指定类型绑定，由数据库按列类型推断，与拼接单引号字面量的行为保持一致
+     */
+    public static void setParams(PreparedStatement ps, List<Object> params, DatabaseConfig config)
+            throws SQLException {
+        boolean untyped = DBConstant.isPostgres(config.getDbType());
+        for (int i = 0; i < params.size(); i++) {
+            Object param = params.get(i);
+            if (untyped && param instanceof String) {
+                ps.setObject(i + 1, param, Types.OTHER);
+            } else {
+                ps.setObject(i + 1, param);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface SqlCallable<T> {
+        T call(PreparedStatement ps) throws SQLException;
+    }
 }
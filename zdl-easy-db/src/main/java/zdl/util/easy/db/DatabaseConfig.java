@@ -4,6 +4,10 @@ import lombok.Getter;
 import lombok.Setter;
 import org.apache.commons.lang3.StringUtils;
 
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
 import static zdl.util.easy.db.DBConstant.DB_TABLE;
 import static zdl.util.easy.db.DBConstant.HIKARI;
 
@@ -28,13 +32,17 @@ public class DatabaseConfig {
     private String dbType;  //数据库类型
     private int maxConnection = 10;
     private long timeOutMs = 60000;
+    private int fetchSize = 1000;  //游标查询每批拉取行数
+    private int asyncQueueSize = 100;  //异步执行排队任务数上限
     private String usedPool = HIKARI;
+    private List<String> replicas;  //只读副本，格式为host:port，与主库使用相同的库名与账号
+    private long maxReplicaLagMs = 10000;  //副本复制延迟上限，超过时不再向该副本路由读请求
 
     public String getDBUrl() {
         return String.format(DB_TABLE.get(dbType)[1],
                 dbType,
                 getHost(),
-                getPort(),
+                Integer.parseInt(getPort()),
                 getDataBaseName());
     }
 
@@ -42,6 +50,39 @@ public class DatabaseConfig {
         return getDBUrl() + ":" + userName;
     }
 
+    /**
+     * @return 各只读副本的数据源，除地址外与当前数据源一致
+     */
+    public List<DatabaseConfig> getReplicaConfigs() {
+        if (replicas == null || replicas.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return replicas.stream().map(this::replicaConfig).collect(Collectors.toList());
+    }
+
+    private DatabaseConfig replicaConfig(String node) {
+        int split = node.lastIndexOf(':');
+        if (split <= 0) {
+            throw new IllegalArgumentException("副本地址格式应为host:port：" + node);
+        }
+        DatabaseConfig replica = new DatabaseConfig();
+        replica.setHost(node.substring(0, split));
+        replica.setPort(node.substring(split + 1));
+        replica.setUrl(url);
+        replica.setUserName(userName);
+        replica.setPassword(password);
+        replica.setDataBaseName(dataBaseName);
+        replica.setSchemaName(schemaName);
+        replica.setTableName(tableName);
+        replica.setDbType(dbType);
+        replica.setMaxConnection(maxConnection);
+        replica.setTimeOutMs(timeOutMs);
+        replica.setFetchSize(fetchSize);
+        replica.setAsyncQueueSize(asyncQueueSize);
+        replica.setUsedPool(usedPool);
+        return replica;
+    }
+
     public String getLongTableName() {
         if (StringUtils.isNotBlank(schemaName)) {
             return schemaName + "." + tableName;
@@ -1,5 +1,6 @@
 package zdl.util.easy.db;
 
+import zdl.util.easy.db.metrics.PoolMetrics;
 
 import javax.sql.DataSource;
 import java.io.Closeable;
@@ -11,4 +12,13 @@ import java.io.Closeable;
  */
 public interface DatabaseInterface extends DataSource, Closeable {
 
+    /**
+     * @return 当前被借出的连接数
+     */
+    int getActiveCount();
+
+    /**
+     * @return 连接池指标快照：连接数、获取连接等待时间与借出时长分布、超时次数、PSCache命中率
+     */
+    PoolMetrics getMetrics();
 }
@@ -0,0 +1,30 @@
+package zdl.util.easy.db;
+
+/**
+ * easy-db运行时异常，用于在迭代器、流等无法抛出受检异常的场景中包装{@link java.sql.SQLException}
+ *
+ * @author ZDLegend
+ * @version 1.0
+ * @date 2026/10/16/ 13:40
+ */
+public class EasyDBException extends RuntimeException {
+    public EasyDBException() {
+        super();
+    }
+
+    public EasyDBException(String message) {
+        super(message);
+    }
+
+    public EasyDBException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    public EasyDBException(Throwable cause) {
+        super(cause);
+    }
+
+    protected EasyDBException(String message, Throwable cause, boolean enableSuppression, boolean writableStackTrace) {
+        super(message, cause, enableSuppression, writableStackTrace);
+    }
+}
@@ -38,6 +38,10 @@ public class FilterConstant {
     public static final String ASC = "ASC";
     public static final String DESC = "DESC";
     public static final String ORDER_BY = "ORDER BY";
+    public static final String GROUP_BY = "GROUP BY";
+    public static final String GROUPING_SETS = "GROUPING SETS";
+    public static final String ROLLUP = "ROLLUP";
+    public static final String GROUPING_ID = "grouping_id";
     public static final String OFFSET = "OFFSET";
     public static final String LIMIT = "LIMIT";
     public static final Set<String> LOGIC_OPE = Stream.of(AND, OR).collect(Collectors.toSet());
@@ -70,5 +74,7 @@ public class FilterConstant {
     public static final String AVG = "avg";
     public static final String MAX = "max";
     public static final String MIN = "min";
-    public static final Set<String> COUNT_OPE = Stream.of(COUNT, SUM, AVG, MAX, MIN).collect(Collectors.toSet());
+    public static final String COUNT_DISTINCT = "countDistinct";
+    public static final Set<String> COUNT_OPE = Stream.of(COUNT, SUM, AVG, MAX, MIN, COUNT_DISTINCT)
+            .collect(Collectors.toSet());
 }
@@ -0,0 +1,322 @@
+package zdl.util.easy.db;
+
+import org.springframework.util.CollectionUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static zdl.util.easy.db.FilterConstant.*;
+
+/**
+ * 过滤条件组优化，在拼接sql前化简条件树，不修改原对象：
+ * <ul>
+ *     <li>展开与父节点逻辑关系相同或只有一个条件的子条件组</li>
+ *     <li>去除重复条件；恒真条件在AND中去除、在OR中使整组恒真；恒假条件在OR中去除、在AND中使整组恒假</li>
+ *     <li>OR中同一字段的eq/in合并为一个in</li>
+ *     <li>AND中同一字段的eq/in取交集，gte与lte合并为between</li>
+ *     <li>识别矛盾条件：同一字段IS NULL与其他比较、eq与ne同值、eq/in交集为空</li>
+ * </ul>
+ * 条件值均为字符串，字段类型未知，因此只在任何字段类型下都成立时才化简：
+ * 两个不同的值只有都是规范形式的数字（如"1"与"2"，而非"01"与"1.0"）时才认为一定不相等。
+ * 由于between包含边界，gt与lt不合并。
+ * <p>
+ * 优化结果恒真时为不含条件的AND组（拼接为1=1），恒假时为不含条件的OR组（拼接为1=0），
+ * 可通过{@link #isAlwaysFalse(Filters)}判断后直接返回空结果，不访问数据库
+ *
+ * @author ZDLegend
+ * @version 1.0
+ * @date 2026/10/16/ 21:00
+ */
+public class FiltersOptimizer {
+
+    private FiltersOptimizer() {
+    }
+
+    /**
+     * @param filters 过滤条件组
+     * @return 优化后的新过滤条件组
+     */
+    public static Filters optimize(Filters filters) {
+        String operator = filters.getOperator();
+        if (!LOGIC_OPE.contains(operator)) {
+            return filters;
+        }
+
+        List<Filter> predicates = new ArrayList<>();
+        List<Filters> children = new ArrayList<>();
+
+        if (!CollectionUtils.isEmpty(filters.getFilter())) {
+            for (Filter filter : filters.getFilter()) {
+                if (filter != null && FILTER_OPE.contains(filter.getOperator()) && !IS_NULL.equals(filter.getOperator())) {
+                    predicates.add(copy(filter));
+                }
+            }
+        }
+
+        if (!CollectionUtils.isEmpty(filters.getFilters())) {
+            for (Filters child : filters.getFilters()) {
+                Filters optimized = optimize(child);
+                if (isConstant(optimized)) {
+                    //AND遇恒假、OR遇恒真时整组为常量，否则常量子组不影响结果
+                    if (isAlwaysFalse(optimized) == AND.equals(operator)) {
+                        return optimized;
+                    }
+                } else if (operator.equals(optimized.getOperator()) || size(optimized) == 1) {
+                    if (optimized.getFilter() != null) {
+                        predicates.addAll(optimized.getFilter());
+                    }
+                    if (optimized.getFilters() != null) {
+                        children.addAll(optimized.getFilters());
+                    }
+                } else {
+                    children.add(optimized);
+                }
+            }
+        }
+
+        predicates = AND.equals(operator) ? mergeAnd(predicates) : mergeOr(predicates);
+        if (predicates == null) {
+            return AND.equals(operator) ? alwaysFalse() : alwaysTrue();
+        }
+        if (predicates.isEmpty() && children.isEmpty()) {
+            return AND.equals(operator) ? alwaysTrue() : alwaysFalse();
+        }
+        if (predicates.isEmpty() && children.size() == 1) {
+            return children.get(0);
+        }
+
+        Filters optimized = new Filters();
+        optimized.setOperator(operator);
+        optimized.setFilter(predicates);
+        optimized.setFilters(children);
+        return optimized;
+    }
+
+    /**
+     * @return 过滤条件组是否恒真，只识别{@link #optimize(Filters)}的结果
+     */
+    public static boolean isAlwaysTrue(Filters filters) {
+        return isConstant(filters) && AND.equals(filters.getOperator());
+    }
+
+    /**
+     * @return 过滤条件组是否恒假，只识别{@link #optimize(Filters)}的结果
+     */
+    public static boolean isAlwaysFalse(Filters filters) {
+        return isConstant(filters) && OR.equals(filters.getOperator());
+    }
+
+    private static Filters alwaysTrue() {
+        Filters filters = new Filters();
+        filters.setOperator(AND);
+        return filters;
+    }
+
+    private static Filters alwaysFalse() {
+        Filters filters = new Filters();
+        filters.setOperator(OR);
+        return filters;
+    }
+
+    private static boolean isConstant(Filters filters) {
+        return CollectionUtils.isEmpty(filters.getFilter()) && CollectionUtils.isEmpty(filters.getFilters());
+    }
+
+    private static int size(Filters filters) {
+        return (filters.getFilter() == null ? 0 : filters.getFilter().size())
+                + (filters.getFilters() == null ? 0 : filters.getFilters().size());
+    }
+
+    /**
+     * AND中按字段化简
+     *
+     * @return 化简后的条件，恒假时返回null
+     */
+    private static List<Filter> mergeAnd(List<Filter> predicates) {
+        List<Filter> merged = new ArrayList<>();
+        for (List<Filter> field : byField(predicates).values()) {
+            boolean isNull = field.stream().anyMatch(filter -> isNull(filter, true));
+            boolean notNull = field.stream().anyMatch(filter -> isNull(filter, false));
+            if (isNull && (notNull || field.size() > 1)) {
+                return null;
+            }
+
+            Set<String> equals = intersectEquals(field);
+            if (equals != null) {
+                if (equals.isEmpty()) {
+                    return null;
+                }
+                for (Filter filter : field) {
+                    if (NE.equals(filter.getOperator()) && equals.size() == 1 && equals.contains(filter.getValue())) {
+                        return null;
+                    }
+                }
+                String name = field.get(0).getField();
+                field.removeIf(filter -> EQ.equals(filter.getOperator()) || IN.equals(filter.getOperator()));
+                field.add(0, equalsFilter(name, equals));
+            }
+
+            mergeBetween(field);
+            merged.addAll(field);
+        }
+        return merged;
+    }
+
+    /**
+     * OR中按字段化简
+     *
+     * @return 化简后的条件，恒真时返回null
+     */
+    private static List<Filter> mergeOr(List<Filter> predicates) {
+        List<Filter> merged = new ArrayList<>();
+        for (List<Filter> field : byField(predicates).values()) {
+            if (field.stream().anyMatch(filter -> isNull(filter, true))
+                    && field.stream().anyMatch(filter -> isNull(filter, false))) {
+                return null;
+            }
+
+            String name = field.get(0).getField();
+            Set<String> values = new LinkedHashSet<>();
+            Iterator<Filter> iterator = field.iterator();
+            while (iterator.hasNext()) {
+                List<String> filterValues = equalsValues(iterator.next());
+                if (filterValues != null) {
+                    values.addAll(filterValues);
+                    iterator.remove();
+                }
+            }
+            if (!values.isEmpty()) {
+                field.add(0, equalsFilter(name, values));
+            }
+            merged.addAll(field);
+        }
+        return merged;
+    }
+
+    /**
+     * 同一字段全部eq/in条件值的交集，无eq/in条件或无法判断时返回null
+     */
+    private static Set<String> intersectEquals(List<Filter> field) {
+        Set<String> result = null;
+        for (Filter filter : field) {
+            List<String> values = equalsValues(filter);
+            if (values == null) {
+                if (EQ.equals(filter.getOperator()) || IN.equals(filter.getOperator())) {
+                    return null;
+                }
+                continue;
+            }
+            if (result == null) {
+                result = new LinkedHashSet<>(values);
+                continue;
+            }
+            for (String value : result) {
+                for (String other : values) {
+                    if (!value.equals(other) && !distinct(value, other)) {
+                        return null;
+                    }
+                }
+            }
+            result.retainAll(values);
+        }
+        return result;
+    }
+
+    /**
+     * gte与lte各一个时合并为between
+     */
+    private static void mergeBetween(List<Filter> field) {
+        Filter lower = null;
+        Filter upper = null;
+        for (Filter filter : field) {
+            if (GTE.equals(filter.getOperator())) {
+                lower = lower == null ? filter : null;
+            } else if (LTE.equals(filter.getOperator())) {
+                upper = upper == null ? filter : null;
+            }
+        }
+        if (lower == null || upper == null || lower.getValue() == null || upper.getValue() == null
+                || lower.getValue().contains(",") || upper.getValue().contains(",")) {
+            return;
+        }
+
+        Filter between = copy(lower);
+        between.setOperator(BETWEEN);
+        between.setValue(lower.getValue() + "," + upper.getValue());
+        field.set(field.indexOf(lower), between);
+        field.remove(upper);
+    }
+
+    /**
+     * @return eq/in条件的值列表，值中含逗号或空值等无法安全合并时返回null
+     */
+    private static List<String> equalsValues(Filter filter) {
+        if (filter.getValue() == null) {
+            return null;
+        }
+        if (EQ.equals(filter.getOperator())) {
+            //空值拼入in后会被split(",")丢弃
+            return filter.getValue().isEmpty() || filter.getValue().contains(",") ? null : List.of(filter.getValue());
+        }
+        if (IN.equals(filter.getOperator())) {
+            List<String> values = List.of(filter.getValue().split(","));
+            return values.contains("") ? null : values;
+        }
+        return null;
+    }
+
+    private static Filter equalsFilter(String field, Set<String> values) {
+        Filter filter = new Filter();
+        filter.setField(field);
+        filter.setOperator(values.size() == 1 ? EQ : IN);
+        filter.setValue(String.join(",", values));
+        return filter;
+    }
+
+    private static boolean isNull(Filter filter, boolean isNull) {
+        return IS.equals(filter.getOperator()) && IS_NULL.equals(filter.getValue()) == isNull;
+    }
+
+    /**
+     * 两个值是否在任何字段类型下都不相等：只有都为规范形式的数字时成立
+     */
+    private static boolean distinct(String a, String b) {
+        return !a.equals(b) && isCanonicalNumber(a) && isCanonicalNumber(b);
+    }
+
+    private static boolean isCanonicalNumber(String value) {
+        try {
+            return new BigDecimal(value).stripTrailingZeros().toPlainString().equals(value);
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 按字段分组并去除重复条件，保持首次出现的顺序
+     */
+    private static Map<String, List<Filter>> byField(List<Filter> predicates) {
+        Map<String, List<Filter>> fields = new LinkedHashMap<>();
+        Set<String> seen = new LinkedHashSet<>();
+        for (Filter filter : predicates) {
+            if (seen.add(filter.getField() + '\u0001' + filter.getOperator() + '\u0001' + filter.getValue())) {
+                fields.computeIfAbsent(filter.getField(), k -> new ArrayList<>()).add(filter);
+            }
+        }
+        return fields;
+    }
+
+    private static Filter copy(Filter filter) {
+        Filter copy = new Filter();
+        copy.setField(filter.getField());
+        copy.setOperator(filter.getOperator());
+        copy.setValue(filter.getValue());
+        return copy;
+    }
+}
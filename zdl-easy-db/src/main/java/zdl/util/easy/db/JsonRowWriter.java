@@ -0,0 +1,179 @@
+package zdl.util.easy.db;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+
+/**
+ * 将结果集逐行直接写入{@link JsonGenerator}，每行写为一个以列标签为键的json对象
+ * <p>
+ * 列的写入方式按{@link ResultSetMetaData}在第一行解析一次：整数、浮点、布尔、定点数、字符串与二进制
+ * 按类型读取后直接写出，其他类型（日期时间、json等）交由生成器的codec序列化，
+ * 输出与{@code JsonUtils.writeValueAsString(List<Map<String, Object>>)}一致。
+ * 作为{@link RowMapper}时每行写出后返回自身，不可在多个结果集之间共用
+ *
+ * @author ZDLegend
+ * @version 1.0
+ * @date 2026/10/17/ 11:00
+ * @see DBPoolsManage#writeJson(PreparedSql, DatabaseConfig, java.io.OutputStream)
+ */
+public class JsonRowWriter implements RowMapper<JsonRowWriter> {
+
+    private final JsonGenerator generator;
+
+    private SerializableString[] names;
+    private ColumnWriter[] writers;
+
+    public JsonRowWriter(JsonGenerator generator) {
+        this.generator = generator;
+    }
+
+    /**
+     * 将结果集剩余的行写为json数组，写完第一行后立即刷新，之后按生成器缓冲区写出
+     *
+     * @return 写出行数
+     */
+    public long writeArray(ResultSet rs) throws SQLException, IOException {
+        generator.writeStartArray();
+        long rows = 0;
+        while (rs.next()) {
+            writeRow(rs);
+            if (++rows == 1) {
+                generator.flush();
+            }
+        }
+        generator.writeEndArray();
+        generator.flush();
+        return rows;
+    }
+
+    /**
+     * 将结果集当前行写为一个json对象
+     */
+    public void writeRow(ResultSet rs) throws SQLException, IOException {
+        if (writers == null) {
+            resolve(rs.getMetaData());
+        }
+        generator.writeStartObject();
+        for (int i = 0; i < writers.length; i++) {
+            generator.writeFieldName(names[i]);
+            writers[i].write(rs, i + 1, generator);
+        }
+        generator.writeEndObject();
+    }
+
+    /**
+     * @throws UncheckedIOException 写出失败
+     */
+    @Override
+    public JsonRowWriter mapRow(ResultSet rs) throws SQLException {
+        try {
+            writeRow(rs);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return this;
+    }
+
+    private void resolve(ResultSetMetaData metaData) throws SQLException {
+        int count = metaData.getColumnCount();
+        names = new SerializableString[count];
+        writers = new ColumnWriter[count];
+        for (int i = 0; i < count; i++) {
+            String label = metaData.getColumnLabel(i + 1);
+            if (label == null || label.isEmpty()) {
+                label = metaData.getColumnName(i + 1);
+            }
+            names[i] = new SerializedString(label);
+            writers[i] = writer(metaData.getColumnType(i + 1));
+        }
+    }
+
+    private static ColumnWriter writer(int sqlType) {
+        switch (sqlType) {
+            case Types.BOOLEAN:
+                return (rs, i, g) -> {
+                    boolean value = rs.getBoolean(i);
+                    if (rs.wasNull()) {
+                        g.writeNull();
+                    } else {
+                        g.writeBoolean(value);
+                    }
+                };
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+                return (rs, i, g) -> {
+                    int value = rs.getInt(i);
+                    if (value == 0 && rs.wasNull()) {
+                        g.writeNull();
+                    } else {
+                        g.writeNumber(value);
+                    }
+                };
+            case Types.BIGINT:
+                return (rs, i, g) -> {
+                    long value = rs.getLong(i);
+                    if (value == 0 && rs.wasNull()) {
+                        g.writeNull();
+                    } else {
+                        g.writeNumber(value);
+                    }
+                };
+            case Types.REAL:
+                return (rs, i, g) -> {
+                    float value = rs.getFloat(i);
+                    if (value == 0 && rs.wasNull()) {
+                        g.writeNull();
+                    } else {
+                        g.writeNumber(value);
+                    }
+                };
+            case Types.FLOAT:
+            case Types.DOUBLE:
+                return (rs, i, g) -> {
+                    double value = rs.getDouble(i);
+                    if (value == 0 && rs.wasNull()) {
+                        g.writeNull();
+                    } else {
+                        g.writeNumber(value);
+                    }
+                };
+            case Types.NUMERIC:
+            case Types.DECIMAL:
+                return (rs, i, g) -> g.writeNumber(rs.getBigDecimal(i));
+            case Types.CHAR:
+            case Types.VARCHAR:
+            case Types.LONGVARCHAR:
+            case Types.NCHAR:
+            case Types.NVARCHAR:
+            case Types.LONGNVARCHAR:
+                return (rs, i, g) -> g.writeString(rs.getString(i));
+            case Types.BINARY:
+            case Types.VARBINARY:
+            case Types.LONGVARBINARY:
+                return (rs, i, g) -> {
+                    byte[] value = rs.getBytes(i);
+                    if (value == null) {
+                        g.writeNull();
+                    } else {
+                        g.writeBinary(value);
+                    }
+                };
+            default:
+                return (rs, i, g) -> g.writeObject(rs.getObject(i));
+        }
+    }
+
+    @FunctionalInterface
+    private interface ColumnWriter {
+        void write(ResultSet rs, int column, JsonGenerator generator) throws SQLException, IOException;
+    }
+}
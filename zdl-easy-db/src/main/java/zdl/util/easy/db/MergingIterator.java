@@ -0,0 +1,62 @@
+package zdl.util.easy.db;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+/**
+ * 多路归并迭代器：各路输入已按comparator有序，输出整体有序，每次只在内存中保留各路的当前元素
+ *
+ * @author ZDLegend
+ * @version 1.0
+ * @date 2026/10/16/ 20:05
+ */
+public class MergingIterator<T> implements Iterator<T> {
+
+    private final PriorityQueue<Head<T>> heads;
+
+    public MergingIterator(List<? extends Iterator<T>> sources, Comparator<? super T> comparator) {
+        Comparator<Head<T>> byValue = (a, b) -> comparator.compare(a.value, b.value);
+        //相同值按输入顺序输出，保持稳定
+        this.heads = new PriorityQueue<>(Math.max(1, sources.size()), byValue.thenComparingInt(head -> head.index));
+        for (int i = 0; i < sources.size(); i++) {
+            Iterator<T> source = sources.get(i);
+            if (source.hasNext()) {
+                heads.add(new Head<>(source, i, source.next()));
+            }
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        return !heads.isEmpty();
+    }
+
+    @Override
+    public T next() {
+        Head<T> head = heads.poll();
+        if (head == null) {
+            throw new NoSuchElementException();
+        }
+        T value = head.value;
+        if (head.source.hasNext()) {
+            head.value = head.source.next();
+            heads.add(head);
+        }
+        return value;
+    }
+
+    private static final class Head<T> {
+        private final Iterator<T> source;
+        private final int index;
+        private T value;
+
+        private Head(Iterator<T> source, int index, T value) {
+            this.source = source;
+            this.index = index;
+            this.value = value;
+        }
+    }
+}
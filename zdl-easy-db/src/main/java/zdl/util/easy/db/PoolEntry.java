@@ -0,0 +1,166 @@
+package zdl.util.easy.db;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 连接池注册项：连接池只初始化一次，记录引用计数与最近使用时间，供空闲回收判断
+ *
+ * @author ZDLegend
+ * @version 1.0
+ * @date 2026/10/16/ 18:20
+ */
+class PoolEntry {
+    private static final Logger logger = LoggerFactory.getLogger(PoolEntry.class);
+
+    private static final int CLOSED = -1;
+
+    /**
+     * 空闲回收确认中，retain()与database()等待其变为0或{@link #CLOSED}
+     */
+    private static final int CLOSING = -2;
+
+    private final DatabaseConfig config;
+
+    /**
+     * 引用计数，{@link #CLOSED}表示已关闭，{@link #CLOSING}表示空闲回收确认中
+     */
+    private final AtomicInteger references = new AtomicInteger();
+
+    private volatile DatabaseInterface database;
+    private volatile long lastUsed = System.currentTimeMillis();
+
+    PoolEntry(DatabaseConfig config) {
+        this.config = config;
+    }
+
+    /**
+     * @return 连接池，首次调用时初始化；已关闭时返回null
+     */
+    DatabaseInterface database() {
+        lastUsed = System.currentTimeMillis();
+        DatabaseInterface db = database;
+        if (db == null) {
+            synchronized (this) {
+                db = database;
+                if (db == null) {
+                    if (awaitClosed()) {
+                        return null;
+                    }
+                    db = DBConstant.initDBI(config);
+                    if (db == null) {
+                        throw new EasyDBException("连接池初始化失败：" + config.getSingleton());
+                    }
+                    database = db;
+                }
+            }
+        }
+        //先写lastUsed再读状态，与closeIfIdle()先改状态再读lastUsed相对，二者至少有一方看到对方
+        return awaitClosed() ? null : db;
+    }
+
+    /**
+     * 增加引用，引用计数大于0时不会被空闲回收
+     *
+     * @return 已关闭时返回false
+     */
+    boolean retain() {
+        lastUsed = System.currentTimeMillis();
+        for (int current = references.get(); current != CLOSED; current = references.get()) {
+            if (current == CLOSING) {
+                Thread.onSpinWait();
+            } else if (references.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    void release() {
+        lastUsed = System.currentTimeMillis();
+        references.updateAndGet(current -> current > 0 ? current - 1 : current);
+    }
+
+    /**
+     * 无引用、无活动连接且超过idleTimeoutMs未使用时关闭
+     *
+     * @return 是否已关闭
+     */
+    boolean closeIfIdle(long now, long idleTimeoutMs) {
+        long used = lastUsed;
+        if (now - used < idleTimeoutMs || isActive()) {
+            return false;
+        }
+        if (!references.compareAndSet(0, CLOSING)) {
+            return false;
+        }
+        //检查与加锁之间可能有database()取走了连接池，确认期间的新调用会等待
+        if (lastUsed != used || isActive()) {
+            references.compareAndSet(CLOSING, 0);
+            return false;
+        }
+        if (!references.compareAndSet(CLOSING, CLOSED)) {
+            return false;
+        }
+        closeDatabase();
+        return true;
+    }
+
+    /**
+     * 无论引用计数，立即关闭
+     */
+    void close() {
+        references.set(CLOSED);
+        closeDatabase();
+    }
+
+    /**
+     * @return 已初始化且未关闭的连接池，不触发初始化也不刷新最近使用时间
+     */
+    DatabaseInterface peek() {
+        DatabaseInterface db = database;
+        return isClosed() ? null : db;
+    }
+
+    boolean isClosed() {
+        return references.get() == CLOSED;
+    }
+
+    private boolean isActive() {
+        DatabaseInterface db = database;
+        return db != null && db.getActiveCount() > 0;
+    }
+
+    /**
+     * @return 是否已关闭，空闲回收确认中时等待结果
+     */
+    private boolean awaitClosed() {
+        int current;
+        while ((current = references.get()) == CLOSING) {
+            Thread.onSpinWait();
+        }
+        return current == CLOSED;
+    }
+
+    int getReferences() {
+        return Math.max(references.get(), 0);
+    }
+
+    long getLastUsed() {
+        return lastUsed;
+    }
+
+    private synchronized void closeDatabase() {
+        if (database == null) {
+            return;
+        }
+        try {
+            database.close();
+        } catch (IOException e) {
+            logger.warn("关闭连接池失败：{}", config.getSingleton(), e);
+        }
+    }
+}
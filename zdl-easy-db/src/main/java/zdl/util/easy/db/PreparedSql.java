@@ -0,0 +1,49 @@
+package zdl.util.easy.db;
+
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 参数化sql语句：带'?'占位符的sql模板与按占位符顺序排列的绑定值
+ * <p>
+ * 相同结构的查询生成相同的sql模板，可以复用数据库端执行计划与连接池的PSCache
+ *
+ * @author ZDLegend
+ * @version 1.0
+ * @date 2026/10/16/ 10:12
+ */
+@Getter
+public class PreparedSql {
+
+    /**
+     * 带'?'占位符的sql模板
+     */
+    private final String sql;
+
+    /**
+     * 绑定值，顺序与sql模板中的占位符一致
+     */
+    private final List<Object> params;
+
+    /**
+     * 过滤条件恒假、结果必然为空，执行时直接返回空结果而不访问数据库
+     */
+    private final boolean alwaysEmpty;
+
+    public PreparedSql(String sql, List<Object> params) {
+        this(sql, params, false);
+    }
+
+    public PreparedSql(String sql, List<Object> params, boolean alwaysEmpty) {
+        this.sql = sql;
+        this.params = Collections.unmodifiableList(params);
+        this.alwaysEmpty = alwaysEmpty;
+    }
+
+    @Override
+    public String toString() {
+        return sql + " " + params;
+    }
+}
@@ -0,0 +1,162 @@
+package zdl.util.easy.db;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static zdl.util.easy.db.DBConstant.DB_TABLE;
+
+/**
+ * 主库的只读副本集合：按活动连接数最少选择副本，定期检查副本可用性与复制延迟
+ *
+ * @author ZDLegend
+ * @version 1.0
+ * @date 2026/10/16/ 19:40
+ */
+class ReplicaSet {
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaSet.class);
+
+    private static final int CHECK_TIMEOUT_SECONDS = 5;
+
+    /**
+     * PostgreSQL 10+：已回放到接收位置时延迟为0，否则为距最近一次回放事务的时间
+     */
+    private static final String PG_LAG_SQL = "SELECT CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0"
+            + " ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0) END";
+    private static final String MYSQL_LAG_SQL = "SHOW SLAVE STATUS";
+
+    private final DatabaseConfig primary;
+    private final List<Node> nodes;
+    private final AtomicInteger next = new AtomicInteger();
+
+    /**
+     * 最近一次路由读请求的时间，健康检查不计入
+     */
+    private volatile long lastUsed = System.currentTimeMillis();
+
+    ReplicaSet(DatabaseConfig primary) {
+        this.primary = primary;
+        this.nodes = primary.getReplicaConfigs().stream().map(Node::new).collect(Collectors.toList());
+    }
+
+    /**
+     * 选择健康副本中活动连接最少的一个，相同时轮流选择
+     *
+     * @return 副本数据源，无健康副本时返回null
+     */
+    DatabaseConfig choose() {
+        lastUsed = System.currentTimeMillis();
+        int size = nodes.size();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        Node best = null;
+        int bestActive = Integer.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            Node node = nodes.get((start + i) % size);
+            if (!node.healthy) {
+                continue;
+            }
+            int active = DBPoolsManage.getActiveCount(node.config);
+            if (active < bestActive) {
+                best = node;
+                bestActive = active;
+            }
+        }
+        return best == null ? null : best.config;
+    }
+
+    /**
+     * 副本不可用，暂停路由直到下一次检查通过
+     */
+    void eject(DatabaseConfig replica, Exception cause) {
+        for (Node node : nodes) {
+            if (node.config == replica && node.healthy) {
+                node.healthy = false;
+                logger.warn("副本不可用，读请求回退：{}", replica.getSingleton(), cause);
+            }
+        }
+    }
+
+    /**
+     * 检查全部副本：连接失败或复制延迟超过{@link DatabaseConfig#getMaxReplicaLagMs()}时摘除，恢复后重新加入
+     */
+    void check() {
+        for (Node node : nodes) {
+            boolean healthy;
+            try {
+                long lagMs = lagMillis(node.config);
+                healthy = lagMs <= primary.getMaxReplicaLagMs();
+                if (!healthy && node.healthy) {
+                    logger.warn("副本复制延迟{}ms，暂停路由：{}", lagMs, node.config.getSingleton());
+                }
+            } catch (SQLException | RuntimeException e) {
+                healthy = false;
+                if (node.healthy) {
+                    logger.warn("副本检查失败，暂停路由：{}", node.config.getSingleton(), e);
+                }
+            }
+            if (healthy && !node.healthy) {
+                logger.info("副本恢复路由：{}", node.config.getSingleton());
+            }
+            node.healthy = healthy;
+        }
+    }
+
+    /**
+     * @return 超过idleTimeoutMs没有读请求
+     */
+    boolean isIdle(long now, long idleTimeoutMs) {
+        return now - lastUsed >= idleTimeoutMs;
+    }
+
+    DatabaseConfig getPrimary() {
+        return primary;
+    }
+
+    List<DatabaseConfig> getReplicaConfigs() {
+        return nodes.stream().map(node -> node.config).collect(Collectors.toList());
+    }
+
+    /**
+     * @return 复制延迟（毫秒），不支持查询延迟的数据库只检查连接可用
+     */
+    private static long lagMillis(DatabaseConfig replica) throws SQLException {
+        String dbType = replica.getDbType();
+        try (Connection conn = DBPoolsManage.getConnection(replica);
+             Statement statement = conn.createStatement()) {
+            statement.setQueryTimeout(CHECK_TIMEOUT_SECONDS);
+            if (DBConstant.POSTGRESQL.equals(dbType)) {
+                try (ResultSet rs = statement.executeQuery(PG_LAG_SQL)) {
+                    return rs.next() ? rs.getLong(1) : 0;
+                }
+            } else if (DBConstant.MYSQL.equals(dbType)) {
+                try (ResultSet rs = statement.executeQuery(MYSQL_LAG_SQL)) {
+                    if (!rs.next()) {
+                        return 0;
+                    }
+                    long seconds = rs.getLong("Seconds_Behind_Master");
+                    //复制线程停止时为NULL
+                    return rs.wasNull() ? Long.MAX_VALUE : seconds * 1000;
+                }
+            } else {
+                statement.execute(DB_TABLE.get(dbType)[2]);
+                return 0;
+            }
+        }
+    }
+
+    private static final class Node {
+        private final DatabaseConfig config;
+        private volatile boolean healthy = true;
+
+        private Node(DatabaseConfig config) {
+            this.config = config;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package zdl.util.easy.db;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 查询结果的一行数据
+ * <p>
+ * 同一结果集的所有行共享一份列名与列下标，每行只保存列值数组
+ *
+ * @author ZDLegend
+ * @version 1.0
+ * @date 2026/10/16/ 13:45
+ */
+public class Row {
+
+    private final Columns columns;
+    private final Object[] values;
+
+    private Row(Columns columns, Object[] values) {
+        this.columns = columns;
+        this.values = values;
+    }
+
+    /**
+     * 创建行转换器，列信息在第一次转换时从结果集元数据中解析一次，之后的行直接复用
+     *
+     * @return 行转换器，不可在多个结果集之间共用
+     */
+    public static RowMapper<Row> mapper() {
+        return new RowMapper<>() {
+            private Columns columns;
+
+            @Override
+            public Row mapRow(ResultSet rs) throws SQLException {
+                if (columns == null) {
+                    columns = new Columns(rs.getMetaData());
+                }
+                Object[] values = new Object[columns.labels.size()];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = rs.getObject(i + 1);
+                }
+                return new Row(columns, values);
+            }
+        };
+    }
+
+    /**
+     * @param index 列下标，从0开始
+     * @return 列值
+     */
+    public Object get(int index) {
+        return values[index];
+    }
+
+    /**
+     * @param label 列名
+     * @return 列值，列不存在时返回null
+     */
+    public Object get(String label) {
+        Integer index = columns.index.get(label);
+        return index == null ? null : values[index];
+    }
+
+    public int size() {
+        return values.length;
+    }
+
+    public List<String> getColumns() {
+        return columns.labels;
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        for (int i = 0; i < values.length; i++) {
+            map.put(columns.labels.get(i), values[i]);
+        }
+        return map;
+    }
+
+    @Override
+    public String toString() {
+        return columns.labels + "=" + Arrays.toString(values);
+    }
+
+    private static final class Columns {
+        private final List<String> labels;
+        private final Map<String, Integer> index = new HashMap<>();
+
+        private Columns(ResultSetMetaData metaData) throws SQLException {
+            String[] array = new String[metaData.getColumnCount()];
+            for (int i = 0; i < array.length; i++) {
+                array[i] = metaData.getColumnLabel(i + 1);
+                index.putIfAbsent(array[i], i);
+            }
+            labels = Collections.unmodifiableList(Arrays.asList(array));
+        }
+    }
+}
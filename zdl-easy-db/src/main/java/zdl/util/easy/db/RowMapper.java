@@ -0,0 +1,21 @@
+package zdl.util.easy.db;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * 将结果集当前行转换为对象
+ *
+ * @author ZDLegend
+ * @version 1.0
+ * @date 2026/10/16/ 13:42
+ */
+@FunctionalInterface
+public interface RowMapper<T> {
+
+    /**
+     * @param rs 已定位到当前行的结果集，实现中不应移动游标
+     * @return 当前行对应的对象
+     */
+    T mapRow(ResultSet rs) throws SQLException;
+}
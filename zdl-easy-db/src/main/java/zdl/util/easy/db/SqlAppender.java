@@ -0,0 +1,75 @@
+package zdl.util.easy.db;
+
+/**
+ * sql拼接器：每个线程复用一个StringBuilder，拼接过程中不产生中间字符串
+ * <pre>
+ * try (SqlAppender sql = SqlAppender.open()) {
+ *     StringBuilder sb = sql.builder();
+ *     sb.append(SELECT).append(SPACE)...;
+ *     return sql.toString();
+ * }
+ * </pre>
+ * 同一线程嵌套打开时（如拼接过程中回调sql模板缓存）返回新的拼接器，互不影响
+ *
+ * @author ZDLegend
+ * @version 1.0
+ * @date 2026/10/16/ 21:30
+ */
+public final class SqlAppender implements AutoCloseable {
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    /**
+     * 超过该容量的StringBuilder不再复用，避免个别超长语句长期占用内存
+     */
+    private static final int MAX_RETAINED_CAPACITY = 16 * 1024;
+
+    private static final ThreadLocal<SqlAppender> LOCAL = ThreadLocal.withInitial(() -> new SqlAppender(true));
+
+    private final StringBuilder sb = new StringBuilder(INITIAL_CAPACITY);
+    private final boolean pooled;
+    private boolean inUse;
+
+    private SqlAppender(boolean pooled) {
+        this.pooled = pooled;
+    }
+
+    /**
+     * @return 当前线程的拼接器，已在使用中时返回新的拼接器
+     */
+    public static SqlAppender open() {
+        SqlAppender appender = LOCAL.get();
+        if (appender.inUse) {
+            appender = new SqlAppender(false);
+        }
+        appender.inUse = true;
+        return appender;
+    }
+
+    /**
+     * @return 底层StringBuilder，用于接收StringBuilder参数的拼接方法
+     */
+    public StringBuilder builder() {
+        return sb;
+    }
+
+    @Override
+    public String toString() {
+        return sb.toString();
+    }
+
+    /**
+     * 归还拼接器，之后不能再使用
+     */
+    @Override
+    public void close() {
+        if (!pooled) {
+            return;
+        }
+        sb.setLength(0);
+        if (sb.capacity() > MAX_RETAINED_CAPACITY) {
+            LOCAL.remove();
+        }
+        inUse = false;
+    }
+}
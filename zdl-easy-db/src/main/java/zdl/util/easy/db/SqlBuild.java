@@ -1,13 +1,13 @@
 package zdl.util.easy.db;
 
-import org.apache.commons.lang3.StringUtils;
 import org.springframework.util.CollectionUtils;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.function.BiConsumer;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 import static zdl.util.easy.db.FilterConstant.*;
 
@@ -21,6 +21,7 @@ import static zdl.util.easy.db.FilterConstant.*;
 public class SqlBuild {
 
     private static final Map<String, BiConsumer<StringBuilder, Filter>> operatorTable = new HashMap<>();
+    private static final Map<String, PreparedOperator> preparedTable = new HashMap<>();
 
     static {
         operatorTable.put(EQ, (sb, filter) -> common(sb, "=", filter));
@@ -30,88 +31,294 @@ public class SqlBuild {
         operatorTable.put(GT, (sb, filter) -> common(sb, ">", filter));
         operatorTable.put(GTE, (sb, filter) -> common(sb, ">=", filter));
         operatorTable.put(IS, SqlBuild::is);
-        operatorTable.put(CONTAINS, SqlBuild::contains);
-        operatorTable.put(START_WITH, SqlBuild::startWith);
-        operatorTable.put(END_WITH, SqlBuild::endWith);
+        operatorTable.put(CONTAINS, (sb, filter) -> like(sb, filter, "%", "%"));
+        operatorTable.put(START_WITH, (sb, filter) -> like(sb, filter, "", "%"));
+        operatorTable.put(END_WITH, (sb, filter) -> like(sb, filter, "%", ""));
         operatorTable.put(IN, SqlBuild::in);
         operatorTable.put(BETWEEN, SqlBuild::between);
+
+        preparedTable.put(EQ, new PreparedOperator((sb, filter) -> preparedCommon(sb, "=", filter), SqlBuild::bindValue));
+        preparedTable.put(NE, new PreparedOperator((sb, filter) -> preparedCommon(sb, "!=", filter), SqlBuild::bindValue));
+        preparedTable.put(LT, new PreparedOperator((sb, filter) -> preparedCommon(sb, "<", filter), SqlBuild::bindValue));
+        preparedTable.put(LTE, new PreparedOperator((sb, filter) -> preparedCommon(sb, "<=", filter), SqlBuild::bindValue));
+        preparedTable.put(GT, new PreparedOperator((sb, filter) -> preparedCommon(sb, ">", filter), SqlBuild::bindValue));
+        preparedTable.put(GTE, new PreparedOperator((sb, filter) -> preparedCommon(sb, ">=", filter), SqlBuild::bindValue));
+        preparedTable.put(IS, new PreparedOperator(SqlBuild::is, (params, filter) -> {
+        }));
+        preparedTable.put(CONTAINS, new PreparedOperator(SqlBuild::preparedLike,
+                (params, filter) -> bindLike(params, filter, "%", "%")));
+        preparedTable.put(START_WITH, new PreparedOperator(SqlBuild::preparedLike,
+                (params, filter) -> bindLike(params, filter, "", "%")));
+        preparedTable.put(END_WITH, new PreparedOperator(SqlBuild::preparedLike,
+                (params, filter) -> bindLike(params, filter, "%", "")));
+        preparedTable.put(IN, new PreparedOperator(SqlBuild::preparedIn, SqlBuild::bindIn));
+        preparedTable.put(BETWEEN, new PreparedOperator(SqlBuild::preparedBetween, SqlBuild::bindBetween));
     }
 
     public static String sqlBuild(Filters filters) {
-        String filterSql;
-        String filtersSql;
+        try (SqlAppender sql = SqlAppender.open()) {
+            sqlBuild(sql.builder(), filters);
+            return sql.toString();
+        }
+    }
+
+    /**
+     * 以字面量拼接过滤条件组到sb中，各条件以括号包裹并以逻辑关系连接，条件列表为空时使用{@link FilterConstant#CON_MAP}中的常量条件
+     *
+     * @param sb      sql拼接目标
+     * @param filters 过滤条件组
+     */
+    public static void sqlBuild(StringBuilder sb, Filters filters) {
+        String operator = filters.getOperator();
 
         if (!CollectionUtils.isEmpty(filters.getFilter())) {
-            filterSql = filters.getFilter().stream()
-                    .map(SqlBuild::sqlBuild)
-                    .filter(StringUtils::isNotBlank)
-                    .map(SqlBuild::addBrackets)
-                    .collect(Collectors.joining(filters.getOperator()));
+            boolean first = true;
+            for (Filter filter : filters.getFilter()) {
+                BiConsumer<StringBuilder, Filter> sqlOperator = operatorTable.get(filter.getOperator());
+                if (sqlOperator != null) {
+                    first = appendClause(sb, operator, first, sqlOperator, filter);
+                }
+            }
         } else {
-            filterSql = CON_MAP.get(filters.getOperator());
+            sb.append(CON_MAP.get(operator));
         }
 
+        sb.append(' ').append(operator).append(' ');
+
         if (!CollectionUtils.isEmpty(filters.getFilters())) {
-            filtersSql = filters.getFilters().stream()
-                    .map(SqlBuild::sqlBuild)
-                    .filter(StringUtils::isNotBlank)
-                    .map(SqlBuild::addBrackets)
-                    .collect(Collectors.joining(filters.getOperator()));
+            boolean first = true;
+            for (Filters child : filters.getFilters()) {
+                first = appendClause(sb, operator, first, SqlBuild::sqlBuild, child);
+            }
         } else {
-            filtersSql = CON_MAP.get(filters.getOperator());
+            sb.append(CON_MAP.get(operator));
         }
+    }
 
-        return filterSql + addSpace(filters.getOperator()) + filtersSql;
+    /**
+     * 拼接一个以括号包裹的子句，子句为空白时撤销
+     *
+     * @return 拼接后是否仍未拼接任何子句
+     */
+    private static <T> boolean appendClause(StringBuilder sb, String operator, boolean first,
+                                            BiConsumer<StringBuilder, T> clause, T value) {
+        int mark = sb.length();
+        if (!first) {
+            sb.append(operator);
+        }
+        sb.append('(');
+        int body = sb.length();
+        clause.accept(sb, value);
+        if (isBlank(sb, body)) {
+            sb.setLength(mark);
+            return first;
+        }
+        sb.append(')');
+        return false;
     }
 
-    private static String sqlBuild(Filter filter) {
-        StringBuilder sb = new StringBuilder();
-        if (operatorTable.containsKey(filter.getOperator())) {
-            operatorTable.get(filter.getOperator()).accept(sb, filter);
+    private static boolean isBlank(StringBuilder sb, int from) {
+        for (int i = from; i < sb.length(); i++) {
+            if (!Character.isWhitespace(sb.charAt(i))) {
+                return false;
+            }
         }
-        return sb.toString();
+        return true;
     }
 
-    private static void common(StringBuilder sb, String sqlOperator, Filter filter) {
-        sb.append(addDoubleQuotes(filter.getField()))
+    /**
+     * 参数化拼接过滤条件组，值不再以字面量写入sql，而是以'?'占位
+     *
+     * @param filters 过滤条件组
+     * @return sql模板与绑定值
+     */
+    public static PreparedSql preparedSqlBuild(Filters filters) {
+        List<Object> params = new ArrayList<>();
+        try (SqlAppender sql = SqlAppender.open()) {
+            preparedSqlBuild(sql.builder(), params, filters);
+            return new PreparedSql(sql.toString(), params);
+        }
+    }
+
+    /**
+     * 参数化拼接过滤条件组到sb中，绑定值按占位符顺序追加到params
+     *
+     * @param sb      sql拼接目标
+     * @param params  绑定值列表
+     * @param filters 过滤条件组
+     */
+    public static void preparedSqlBuild(StringBuilder sb, List<Object> params, Filters filters) {
+        String operator = filters.getOperator();
+        boolean empty = true;
+
+        if (!CollectionUtils.isEmpty(filters.getFilter())) {
+            for (Filter filter : filters.getFilter()) {
+                PreparedOperator preparedOperator = preparedTable.get(filter.getOperator());
+                if (preparedOperator == null) {
+                    continue;
+                }
+                empty = appendLogic(sb, operator, empty);
+                preparedOperator.sql.accept(sb, filter);
+                preparedOperator.bind.accept(params, filter);
+                sb.append(')');
+            }
+        }
+
+        if (!CollectionUtils.isEmpty(filters.getFilters())) {
+            for (Filters child : filters.getFilters()) {
+                empty = appendLogic(sb, operator, empty);
+                preparedSqlBuild(sb, params, child);
+                sb.append(')');
+            }
+        }
+
+        if (empty) {
+            sb.append(CON_MAP.get(operator));
+        }
+    }
+
+    private static boolean appendLogic(StringBuilder sb, String operator, boolean first) {
+        if (!first) {
+            sb.append(' ').append(operator).append(' ');
+        }
+        sb.append('(');
+        return false;
+    }
+
+    /**
+     * 拼接过滤条件组的结构特征，并按占位符顺序收集绑定值
+     * <p>
+     * 结构特征包含逻辑关系、嵌套层级、字段名、操作符以及影响sql模板的值特征（IN的值个数、IS的空/非空），
+     * 结构特征相同的过滤条件组通过{@link #preparedSqlBuild(StringBuilder, List, Filters)}生成的sql模板相同
+     *
+     * @param shape   结构特征拼接目标
+     * @param params  绑定值列表
+     * @param filters 过滤条件组
+     */
+    public static void shapeBuild(StringBuilder shape, List<Object> params, Filters filters) {
+        shape.append(filters.getOperator()).append('(');
+
+        if (!CollectionUtils.isEmpty(filters.getFilter())) {
+            for (Filter filter : filters.getFilter()) {
+                PreparedOperator preparedOperator = preparedTable.get(filter.getOperator());
+                if (preparedOperator == null) {
+                    continue;
+                }
+                int size = params.size();
+                preparedOperator.bind.accept(params, filter);
+                shape.append(filter.getField()).append('\u0001')
+                        .append(filter.getOperator()).append('\u0001')
+                        .append(params.size() - size);
+                if (IS.equals(filter.getOperator())) {
+                    shape.append(IS_NULL.equals(filter.getValue()) ? 'N' : 'n');
+                }
+                shape.append('\u0002');
+            }
+        }
+
+        if (!CollectionUtils.isEmpty(filters.getFilters())) {
+            for (Filters child : filters.getFilters()) {
+                shapeBuild(shape, params, child);
+            }
+        }
+
+        shape.append(')');
+    }
+
+    private static void preparedCommon(StringBuilder sb, String sqlOperator, Filter filter) {
+        sb.append('"').append(filter.getField()).append('"')
                 .append(sqlOperator)
-                .append(addSingleQuotes(filter.getValue()));
+                .append('?');
     }
 
-    private static void is(StringBuilder sb, Filter filter) {
-        if (IS_NULL.equals(filter.getValue())) {
-            sb.append(String.format(IS_NULL_FORMAT, filter.getField()));
-        } else {
-            sb.append(String.format(IS_NOT_NULL_FORMAT, filter.getField()));
+    private static void preparedLike(StringBuilder sb, Filter filter) {
+        sb.append(" CAST(").append(filter.getField()).append(" AS VARCHAR) LIKE ?");
+    }
+
+    private static void preparedIn(StringBuilder sb, Filter filter) {
+        int size = valueCount(filter.getValue());
+        sb.append('"').append(filter.getField()).append("\" IN(");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append('?');
         }
+        sb.append(')');
     }
 
-    private static void contains(StringBuilder sb, Filter filter) {
-        String value = likeReplace(filter);
-        sb.append(String.format(LIKE_FORMAT, filter.getField(), "%", value, "%"));
+    private static void preparedBetween(StringBuilder sb, Filter filter) {
+        sb.append('"').append(filter.getField()).append("\" BETWEEN ? AND ?");
     }
 
-    private static void endWith(StringBuilder sb, Filter filter) {
-        String value = likeReplace(filter);
-        sb.append(String.format(LIKE_FORMAT, filter.getField(), "%", value, ""));
+    private static void bindValue(List<Object> params, Filter filter) {
+        params.add(filter.getValue());
     }
 
-    private static void startWith(StringBuilder sb, Filter filter) {
-        String value = likeReplace(filter);
-        sb.append(String.format(LIKE_FORMAT, filter.getField(), "", value, "%"));
+    private static void bindLike(List<Object> params, Filter filter, String prefix, String suffix) {
+        params.add(prefix + likeReplace(filter) + suffix);
     }
 
-    private static void in(StringBuilder sb, Filter filter) {
+    private static void bindIn(List<Object> params, Filter filter) {
+        Collections.addAll(params, (Object[]) filter.getValue().split(","));
+    }
+
+    private static void bindBetween(List<Object> params, Filter filter) {
         String[] strings = filter.getValue().split(",");
-        String in = Stream.of(strings)
-                .map(SqlBuild::addSingleQuotes)
-                .collect(Collectors.joining(","));
-        sb.append(String.format(IN_FORMAT, filter.getField(), in));
+        params.add(strings[0]);
+        params.add(strings[1]);
+    }
+
+    private static void common(StringBuilder sb, String sqlOperator, Filter filter) {
+        sb.append('"').append(filter.getField()).append('"')
+                .append(sqlOperator)
+                .append('\'').append(filter.getValue()).append('\'');
+    }
+
+    private static void is(StringBuilder sb, Filter filter) {
+        sb.append('"').append(filter.getField()).append('"');
+        if (IS_NULL.equals(filter.getValue())) {
+            sb.append(" IS NULL");
+        } else {
+            sb.append(" IS NOT NULL");
+        }
+    }
+
+    private static void like(StringBuilder sb, Filter filter, String prefix, String suffix) {
+        sb.append(" CAST(").append(filter.getField()).append(" AS VARCHAR) LIKE '").append(prefix);
+        String value = filter.getValue();
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            sb.append(c == '?' ? '_' : c == '*' ? '%' : c);
+        }
+        sb.append(suffix).append('\'');
+    }
+
+    private static void in(StringBuilder sb, Filter filter) {
+        String value = filter.getValue();
+        int size = valueCount(value);
+        sb.append('"').append(filter.getField()).append("\" IN(");
+        for (int i = 0, from = 0; i < size; i++) {
+            int to = value.indexOf(',', from);
+            if (to < 0) {
+                to = value.length();
+            }
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append('\'').append(value, from, to).append('\'');
+            from = to + 1;
+        }
+        sb.append(')');
     }
 
     private static void between(StringBuilder sb, Filter filter) {
-        String[] strings = filter.getValue().split(",");
-        sb.append(String.format(BETWEEN_FORMAT, filter.getField(), strings[0], strings[1]));
+        String value = filter.getValue();
+        int comma = value.indexOf(',');
+        int end = value.indexOf(',', comma + 1);
+        sb.append('"').append(filter.getField()).append("\" BETWEEN '")
+                .append(value, 0, comma).append("' AND '")
+                .append(value, comma + 1, end < 0 ? value.length() : end).append('\'');
     }
 
     private static String likeReplace(Filter filter) {
@@ -120,14 +327,62 @@ public class SqlBuild {
                 .replace("*", "%");
     }
 
+    /**
+     * 逗号分隔值的个数，与{@link String#split(String)}一致：末尾的空值不计
+     */
+    private static int valueCount(String value) {
+        int end = valueEnd(value);
+        if (end == 0) {
+            return value.isEmpty() ? 1 : 0;
+        }
+        int count = 1;
+        for (int i = value.indexOf(','); i >= 0 && i < end; i = value.indexOf(',', i + 1)) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * @return 去掉末尾逗号后的长度
+     */
+    private static int valueEnd(String value) {
+        int end = value.length();
+        while (end > 0 && value.charAt(end - 1) == ',') {
+            end--;
+        }
+        return end;
+    }
+
     public static String addSingleQuotes(String field) {
         return "'" + field + "'";
     }
 
+    /**
+     * 追加单引号字符串字面量，值中的单引号加倍；MySQL默认把反斜杠当作转义符，反斜杠同样加倍
+     *
+     * @param dbType 数据库类型，同{@link DatabaseConfig#getDbType()}
+     */
+    public static void appendLiteral(StringBuilder sb, String value, String dbType) {
+        boolean backslash = DBConstant.MYSQL.equals(dbType);
+        sb.append('\'');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\'' || (backslash && c == '\\')) {
+                sb.append(c);
+            }
+            sb.append(c);
+        }
+        sb.append('\'');
+    }
+
     public static String addDoubleQuotes(String field) {
         return "\"" + field + "\"";
     }
 
+    public static String addBackQuotes(String field) {
+        return "`" + field + "`";
+    }
+
     public static String addBrackets(String field) {
         return "(" + field + ")";
     }
@@ -135,4 +390,26 @@ public class SqlBuild {
     public static String addSpace(String field) {
         return " " + field + " ";
     }
+
+    /**
+     * 字段在结果集中的列名：去掉表名前缀与双引号
+     */
+    public static String columnLabel(String column) {
+        String label = column.substring(column.lastIndexOf('.') + 1);
+        return label.length() > 1 && label.startsWith("\"") && label.endsWith("\"")
+                ? label.substring(1, label.length() - 1) : label;
+    }
+
+    /**
+     * 参数化拼接单个过滤条件：sql模板拼接与绑定值收集分离，命中模板缓存时只需收集绑定值
+     */
+    private static final class PreparedOperator {
+        private final BiConsumer<StringBuilder, Filter> sql;
+        private final BiConsumer<List<Object>, Filter> bind;
+
+        private PreparedOperator(BiConsumer<StringBuilder, Filter> sql, BiConsumer<List<Object>, Filter> bind) {
+            this.sql = sql;
+            this.bind = bind;
+        }
+    }
 }
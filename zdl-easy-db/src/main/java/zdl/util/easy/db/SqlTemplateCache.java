@@ -0,0 +1,121 @@
+package zdl.util.easy.db;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * sql模板缓存，以查询的结构特征为键
+ * <p>
+ * 结构特征由{@link SqlBuild#shapeBuild(StringBuilder, java.util.List, Filters)}等方法生成，
+ * 命中时只需按顺序收集绑定值，无需重新拼接sql；超出容量后按写入顺序淘汰
+ *
+ * @author ZDLegend
+ * @version 1.0
+ * @date 2026/10/16/ 11:05
+ */
+public class SqlTemplateCache {
+
+    public static final int DEFAULT_MAXIMUM_SIZE = 1024;
+
+    private static final SqlTemplateCache DEFAULT = new SqlTemplateCache(DEFAULT_MAXIMUM_SIZE);
+
+    private final int maximumSize;
+    private final ConcurrentMap<String, String> templates = new ConcurrentHashMap<>();
+    private final Queue<String> order = new ConcurrentLinkedQueue<>();
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    public SqlTemplateCache(int maximumSize) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("maximumSize必须大于0：" + maximumSize);
+        }
+        this.maximumSize = maximumSize;
+    }
+
+    /**
+     * @return {@link zdl.util.easy.db.select.Select}与{@link zdl.util.easy.db.statistics.Statistics}默认使用的缓存
+     */
+    public static SqlTemplateCache getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * 获取结构特征对应的sql模板，未命中时由compiler生成并写入缓存
+     *
+     * @param shape    结构特征
+     * @param compiler sql模板生成
+     * @return sql模板
+     */
+    public String get(String shape, Supplier<String> compiler) {
+        String template = templates.get(shape);
+        if (template != null) {
+            hitCount.increment();
+            return template;
+        }
+
+        missCount.increment();
+        template = compiler.get();
+        String exist = templates.putIfAbsent(shape, template);
+        if (exist != null) {
+            return exist;
+        }
+
+        order.offer(shape);
+        while (templates.size() > maximumSize) {
+            String eldest = order.poll();
+            if (eldest == null) {
+                break;
+            }
+            if (templates.remove(eldest) != null) {
+                evictionCount.increment();
+            }
+        }
+        return template;
+    }
+
+    public void clear() {
+        templates.clear();
+        order.clear();
+    }
+
+    public int size() {
+        return templates.size();
+    }
+
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    public double getHitRate() {
+        long hit = getHitCount();
+        long total = hit + getMissCount();
+        return total == 0 ? 1.0 : (double) hit / total;
+    }
+
+    @Override
+    public String toString() {
+        return "SqlTemplateCache{size=" + size()
+                + ", maximumSize=" + maximumSize
+                + ", hitCount=" + getHitCount()
+                + ", missCount=" + getMissCount()
+                + ", evictionCount=" + getEvictionCount() + "}";
+    }
+}
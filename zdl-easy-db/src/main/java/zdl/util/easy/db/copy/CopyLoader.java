@@ -0,0 +1,315 @@
+package zdl.util.easy.db.copy;
+
+import org.apache.commons.lang3.StringUtils;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import zdl.util.easy.db.EasyDBException;
+import zdl.util.easy.db.SqlBuild;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 基于COPY FROM STDIN协议的PostgreSQL/Greenplum批量导入
+ * <p>
+ * 行格式沿用zdl-javassist中CopyInData的约定：字段分隔符'\033'，空值与空白字符串写为'\N'。
+ * COPY文本格式只支持换行作为行分隔符，因此行尾使用'\n'，字段中的反斜杠、换行与分隔符按COPY文本格式转义。
+ * <p>
+ * 导入分为三段流水线：调用方线程{@link #add(Object)}写入有界行队列（队列满时阻塞，形成背压），
+ * 序列化线程将行编码为字节块，写入线程将字节块发送到数据库，序列化与网络发送并行进行
+ *
+ * @author ZDLegend
+ * @version 1.0
+ * @date 2026/10/16/ 16:35
+ */
+public class CopyLoader<T> implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(CopyLoader.class);
+
+    public static final char FIELD_DELIMITER = '\033';
+    public static final String NULL_CHAR = "\\N";
+    public static final String COPY_FORMAT = "COPY %s(%s) FROM STDIN WITH DELIMITER E'\\033'";
+
+    private static final int CHUNK_SIZE = 64 * 1024;
+    private static final int CHUNK_QUEUE_SIZE = 8;
+    private static final long POLL_MILLIS = 100;
+    private static final Object END = new Object();
+    private static final ByteBuffer END_CHUNK = ByteBuffer.allocate(0);
+    private static final AtomicInteger LOADER_NUMBER = new AtomicInteger();
+
+    private final Connection connection;
+    private final CopyIn copyIn;
+    private final Function<T, Object[]> extractor;
+    private final BlockingQueue<Object> rows;
+    private final BlockingQueue<ByteBuffer> chunks = new ArrayBlockingQueue<>(CHUNK_QUEUE_SIZE);
+    private final ExecutorService executor;
+    private final CompletableFuture<Void> serializing;
+    private final CompletableFuture<Long> writing;
+
+    private final AtomicLong rowCount = new AtomicLong();
+    private final AtomicLong byteCount = new AtomicLong();
+    private final long start = System.nanoTime();
+
+    private volatile Throwable failure;
+    private boolean finished;
+    private boolean closed;
+
+    private CopyLoader(Connection connection, CopyIn copyIn, Function<T, Object[]> extractor, int queueSize) {
+        this.connection = connection;
+        this.copyIn = copyIn;
+        this.extractor = extractor;
+        this.rows = new ArrayBlockingQueue<>(queueSize);
+
+        String name = "copy-loader-" + LOADER_NUMBER.incrementAndGet();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.serializing = CompletableFuture.runAsync(this::serialize, executor);
+        this.writing = CompletableFuture.supplyAsync(this::write, executor);
+    }
+
+    /**
+     * 在connection上开始COPY导入
+     *
+     * @param connection 连接，归导入器所有，结束或关闭时归还
+     * @param tableName  目标表
+     * @param columns    导入字段
+     * @param extractor  从对象中按columns顺序取出字段值
+     * @param queueSize  行队列容量
+     * @return 导入器
+     */
+    public static <T> CopyLoader<T> open(Connection connection, String tableName, List<String> columns,
+                                         Function<T, Object[]> extractor, int queueSize) throws SQLException {
+        try {
+            String sql = String.format(COPY_FORMAT, tableName,
+                    columns.stream().map(SqlBuild::addDoubleQuotes).collect(Collectors.joining(",")));
+            CopyIn copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(sql);
+            return new CopyLoader<>(connection, copyIn, extractor, queueSize);
+        } catch (SQLException | RuntimeException e) {
+            connection.close();
+            throw e;
+        }
+    }
+
+    /**
+     * 写入一行，行队列满时阻塞
+     *
+     * @param row 行对象
+     */
+    public void add(T row) {
+        if (finished) {
+            throw new IllegalStateException("导入已结束");
+        }
+        offer(rows, row);
+    }
+
+    /**
+     * 结束导入，等待已写入的行全部发送并提交
+     *
+     * @return 导入统计
+     */
+    public CopyResult finish() {
+        try {
+            if (!finished) {
+                finished = true;
+                offer(rows, END);
+            }
+            long loaded = writing.join();
+            CopyResult result = new CopyResult(loaded, byteCount.get(), System.nanoTime() - start);
+            logger.info("COPY导入完成：{}", result);
+            return result;
+        } catch (CompletionException | CancellationException e) {
+            throw new EasyDBException("COPY导入失败", failure != null ? failure : e);
+        } finally {
+            close();
+        }
+    }
+
+    /**
+     * @return 当前进度，导入过程中可随时调用
+     */
+    public CopyResult progress() {
+        return new CopyResult(rowCount.get(), byteCount.get(), System.nanoTime() - start);
+    }
+
+    /**
+     * 关闭导入器，未调用{@link #finish()}时取消本次导入
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        if (!writing.isDone()) {
+            fail(new CancellationException("COPY导入已取消"));
+        }
+        CompletableFuture.allOf(serializing, writing).exceptionally(e -> null).join();
+        executor.shutdown();
+
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            logger.warn("关闭数据库连接失败", e);
+        }
+    }
+
+    /**
+     * 序列化线程：行编码为COPY文本格式并按块交给写入线程
+     */
+    @SuppressWarnings("unchecked")
+    private void serialize() {
+        try {
+            StringBuilder line = new StringBuilder(256);
+            ByteBuffer chunk = ByteBuffer.allocate(CHUNK_SIZE);
+
+            for (Object row = poll(rows); row != END; row = poll(rows)) {
+                line.setLength(0);
+                Object[] fields = extractor.apply((T) row);
+                for (int i = 0; i < fields.length; i++) {
+                    if (i > 0) {
+                        line.append(FIELD_DELIMITER);
+                    }
+                    appendField(line, fields[i]);
+                }
+                line.append('\n');
+
+                byte[] bytes = line.toString().getBytes(StandardCharsets.UTF_8);
+                if (chunk.remaining() < bytes.length) {
+                    if (chunk.position() > 0) {
+                        offer(chunks, chunk.flip());
+                    }
+                    chunk = ByteBuffer.allocate(Math.max(CHUNK_SIZE, bytes.length));
+                }
+                chunk.put(bytes);
+                rowCount.incrementAndGet();
+            }
+
+            if (chunk.position() > 0) {
+                offer(chunks, chunk.flip());
+            }
+            offer(chunks, END_CHUNK);
+        } catch (Throwable e) {
+            fail(e);
+            throw e;
+        }
+    }
+
+    /**
+     * 写入线程：发送字节块，结束时提交本次COPY
+     *
+     * @return 数据库确认导入的行数
+     */
+    private long write() {
+        try {
+            for (ByteBuffer chunk = poll(chunks); chunk != END_CHUNK; chunk = poll(chunks)) {
+                copyIn.writeToCopy(chunk.array(), 0, chunk.limit());
+                byteCount.addAndGet(chunk.limit());
+            }
+            return copyIn.endCopy();
+        } catch (SQLException e) {
+            fail(e);
+            throw new EasyDBException(e);
+        } catch (Throwable e) {
+            fail(e);
+            throw e;
+        }
+    }
+
+    private void fail(Throwable e) {
+        if (failure == null) {
+            failure = e;
+        }
+        try {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        } catch (SQLException ex) {
+            logger.warn("取消COPY导入失败", ex);
+        }
+    }
+
+    /**
+     * 写入队列，队列满时阻塞，流水线任一环节失败时抛出异常而不是永久阻塞
+     */
+    private <E> void offer(BlockingQueue<E> queue, E element) {
+        try {
+            while (!queue.offer(element, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                checkFailure();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new EasyDBException(e);
+        }
+    }
+
+    private <E> E poll(BlockingQueue<E> queue) {
+        try {
+            E element;
+            while ((element = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS)) == null) {
+                checkFailure();
+            }
+            return element;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new EasyDBException(e);
+        }
+    }
+
+    private void checkFailure() {
+        if (failure != null) {
+            throw new EasyDBException("COPY导入失败", failure);
+        }
+    }
+
+    /**
+     * 按COPY文本格式写入字段值，null与空白字符串写为'\N'
+     */
+    static void appendField(StringBuilder sb, Object value) {
+        if (value == null || (value instanceof String && StringUtils.isBlank((String) value))) {
+            sb.append(NULL_CHAR);
+            return;
+        }
+
+        String text = value.toString();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                case FIELD_DELIMITER:
+                    sb.append("\\033");
+                    break;
+                default:
+                    sb.append(c);
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package zdl.util.easy.db.copy;
+
+import lombok.Getter;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * COPY导入统计
+ *
+ * @author ZDLegend
+ * @version 1.0
+ * @date 2026/10/16/ 16:30
+ */
+@Getter
+public class CopyResult {
+
+    /**
+     * 导入行数
+     */
+    private final long rows;
+
+    /**
+     * 发送字节数
+     */
+    private final long bytes;
+
+    /**
+     * 耗时（纳秒）
+     */
+    private final long elapsedNanos;
+
+    public CopyResult(long rows, long bytes, long elapsedNanos) {
+        this.rows = rows;
+        this.bytes = bytes;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public long getElapsedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+    }
+
+    /**
+     * @return 每秒导入行数
+     */
+    public double getRowsPerSecond() {
+        return elapsedNanos == 0 ? 0 : rows * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * @return 每秒发送字节数
+     */
+    public double getBytesPerSecond() {
+        return elapsedNanos == 0 ? 0 : bytes * 1e9 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CopyResult{rows=%d, bytes=%d, elapsed=%dms, rows/s=%.1f, bytes/s=%.1f}",
+                rows, bytes, getElapsedMillis(), getRowsPerSecond(), getBytesPerSecond());
+    }
+}
@@ -3,6 +3,8 @@ package zdl.util.easy.db.druid;
 import com.alibaba.druid.pool.DruidDataSource;
 import zdl.util.easy.db.DatabaseConfig;
 import zdl.util.easy.db.DatabaseInterface;
+import zdl.util.easy.db.metrics.PoolMetrics;
+import zdl.util.easy.db.metrics.PoolMetricsRecorder;
 
 import java.io.Serializable;
 import java.util.Properties;
@@ -21,6 +23,8 @@ public class DruidDatabase extends DruidDataSource implements Serializable, Data
 
     private static String dbType;
 
+    private final transient PoolMetricsRecorder recorder = new PoolMetricsRecorder();
+
     public DruidDatabase(final DatabaseConfig databaseConfig) {
         super();
 
@@ -61,6 +65,9 @@ public class DruidDatabase extends DruidDataSource implements Serializable, Data
         setValidationQuery(DB_TABLE.get(dbType)[2]);
         setTestWhileIdle(true);
         setTestOnBorrow(true);
+
+        //连接池指标
+        getProxyFilters().add(new DruidMetricsFilter(recorder));
     }
 
     public DruidDatabase(final String dbType, final String host, final int port, final String database,
@@ -102,6 +109,9 @@ public class DruidDatabase extends DruidDataSource implements Serializable, Data
         setValidationQuery(DB_TABLE.get(dbType)[2]);
         setTestWhileIdle(true);
         setTestOnBorrow(true);
+
+        //连接池指标
+        getProxyFilters().add(new DruidMetricsFilter(recorder));
     }
 
     public DruidDatabase(final Properties props) {
@@ -118,6 +128,12 @@ public class DruidDatabase extends DruidDataSource implements Serializable, Data
         return true;
     }
 
+    @Override
+    public PoolMetrics getMetrics() {
+        return new PoolMetrics(getName(), getActiveCount(), getPoolingCount(), getNotEmptyWaitThreadCount(),
+                getMaxActive(), recorder, getCachedPreparedStatementHitCount(), getCachedPreparedStatementMissCount());
+    }
+
     public String getDBType() {
         return dbType;
     }
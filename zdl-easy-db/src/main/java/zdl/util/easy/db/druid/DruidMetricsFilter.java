@@ -0,0 +1,53 @@
+package zdl.util.easy.db.druid;
+
+import com.alibaba.druid.filter.FilterAdapter;
+import com.alibaba.druid.filter.FilterChain;
+import com.alibaba.druid.pool.DruidDataSource;
+import com.alibaba.druid.pool.DruidPooledConnection;
+import com.alibaba.druid.pool.GetConnectionTimeoutException;
+import zdl.util.easy.db.metrics.PoolMetricsRecorder;
+
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Druid过滤器：记录获取连接等待时间、连接借出时长与获取超时次数
+ *
+ * @author ZDLegend
+ * @version 1.0
+ * @date 2026/10/16/ 19:25
+ */
+class DruidMetricsFilter extends FilterAdapter {
+
+    private final PoolMetricsRecorder recorder;
+
+    DruidMetricsFilter(PoolMetricsRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    @Override
+    public DruidPooledConnection dataSource_getConnection(FilterChain chain, DruidDataSource dataSource,
+                                                          long maxWaitMillis) throws SQLException {
+        long start = System.nanoTime();
+        try {
+            DruidPooledConnection conn = super.dataSource_getConnection(chain, dataSource, maxWaitMillis);
+            long now = System.nanoTime();
+            recorder.recordAcquireNanos(now - start);
+            //未开启removeAbandoned时druid不记录借出时间，这里统一记录
+            conn.setConnectedTimeNano(now);
+            return conn;
+        } catch (GetConnectionTimeoutException e) {
+            recorder.recordTimeout();
+            throw e;
+        }
+    }
+
+    @Override
+    public void dataSource_releaseConnection(FilterChain chain, DruidPooledConnection conn) throws SQLException {
+        long connectedTimeNano = conn.getConnectedTimeNano();
+        if (connectedTimeNano > 0) {
+            recorder.recordUsageMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - connectedTimeNano));
+        }
+        super.dataSource_releaseConnection(chain, conn);
+    }
+}
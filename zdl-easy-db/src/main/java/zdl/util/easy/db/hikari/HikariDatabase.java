@@ -1,8 +1,12 @@
 package zdl.util.easy.db.hikari;
 
 import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
 import zdl.util.easy.db.DatabaseConfig;
 import zdl.util.easy.db.DatabaseInterface;
+import zdl.util.easy.db.metrics.PoolMetrics;
+import zdl.util.easy.db.metrics.PoolMetricsRecorder;
 
 import java.io.Serializable;
 
@@ -17,6 +21,8 @@ public class HikariDatabase extends HikariDataSource implements Serializable, Da
 
     private static String dbType;
 
+    private final transient PoolMetricsRecorder recorder = new PoolMetricsRecorder();
+
     public HikariDatabase(final DatabaseConfig databaseConfig) {
         super();
 
@@ -34,5 +40,39 @@ public class HikariDatabase extends HikariDataSource implements Serializable, Da
         setPassword(databaseConfig.getPassword());
         setMaximumPoolSize(databaseConfig.getMaxConnection());
         setConnectionTimeout(databaseConfig.getTimeOutMs());
+
+        //连接池指标
+        setMetricsTrackerFactory((poolName, poolStats) -> new IMetricsTracker() {
+            @Override
+            public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+                recorder.recordAcquireNanos(elapsedAcquiredNanos);
+            }
+
+            @Override
+            public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+                recorder.recordUsageMillis(elapsedBorrowedMillis);
+            }
+
+            @Override
+            public void recordConnectionTimeout() {
+                recorder.recordTimeout();
+            }
+        });
+    }
+
+    @Override
+    public int getActiveCount() {
+        HikariPoolMXBean pool = getHikariPoolMXBean();
+        return pool == null ? 0 : pool.getActiveConnections();
+    }
+
+    @Override
+    public PoolMetrics getMetrics() {
+        HikariPoolMXBean pool = getHikariPoolMXBean();
+        if (pool == null) {
+            return new PoolMetrics(getPoolName(), 0, 0, 0, getMaximumPoolSize(), recorder, 0, 0);
+        }
+        return new PoolMetrics(getPoolName(), pool.getActiveConnections(), pool.getIdleConnections(),
+                pool.getThreadsAwaitingConnection(), getMaximumPoolSize(), recorder, 0, 0);
     }
 }
@@ -0,0 +1,217 @@
+package zdl.util.easy.db.insert;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.util.CollectionUtils;
+import zdl.util.easy.db.DBConstant;
+import zdl.util.easy.db.DBPoolsManage;
+import zdl.util.easy.db.DatabaseConfig;
+import zdl.util.easy.db.SqlBuild;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static zdl.util.easy.db.FilterConstant.SPACE;
+import static zdl.util.easy.db.SqlBuild.addBackQuotes;
+import static zdl.util.easy.db.SqlBuild.addDoubleQuotes;
+
+/**
+ * 批量INSERT/UPSERT数据库语句拼接类
+ * <p>
+ * 写入{@link DatabaseConfig#getLongTableName()}，每行数据为与{@link BatchInsert#columns}一一对应的值数组：
+ * <ul>
+ *     <li>{@link BatchInsert#multiValues}为true时改写为多行VALUES，一条语句写入多行</li>
+ *     <li>设置{@link BatchInsert#conflictKeys}时为UPSERT：PostgreSQL/Greenplum使用ON CONFLICT，
+ *     MySQL使用ON DUPLICATE KEY UPDATE</li>
+ * </ul>
+ *
+ * @author ZDLegend
+ * @version 1.0
+ * @date 2026/10/16/ 15:20
+ */
+@Getter
+@Setter
+public class BatchInsert {
+
+    /**
+     * 单条语句绑定参数个数上限（PostgreSQL JDBC驱动限制）
+     */
+    public static final int MAX_PARAMS = 32767;
+
+    /**
+     * 写入字段列表
+     */
+    private List<String> columns;
+
+    /**
+     * 冲突判断字段（主键或唯一索引），不为空时执行UPSERT
+     */
+    private List<String> conflictKeys;
+
+    /**
+     * 每批写入行数，每批执行一次executeBatch
+     */
+    private int batchSize = 1000;
+
+    /**
+     * 每写入多少批提交一次事务
+     */
+    private int commitInterval = 10;
+
+    /**
+     * 是否改写为多行VALUES
+     */
+    private boolean multiValues = true;
+
+    /**
+     * 拼接写入rowCount行数据的参数化语句
+     *
+     * @param source         数据源
+     * @param rowCount       单条语句写入行数
+     * @param onDuplicateKey 非PostgreSQL协议时是否使用ON DUPLICATE KEY UPDATE
+     * @return sql模板
+     */
+    public String sqlBuild(DatabaseConfig source, int rowCount, boolean onDuplicateKey) {
+        String values = columns.stream()
+                .map(column -> "?")
+                .collect(Collectors.joining(",", "(", ")"));
+
+        StringBuilder sb = new StringBuilder("INSERT INTO ")
+                .append(source.getLongTableName())
+                .append(columns.stream().map(column -> quote(column, source.getDbType())).collect(Collectors.joining(",", "(", ")")))
+                .append(" VALUES ");
+        for (int i = 0; i < rowCount; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(values);
+        }
+
+        if (!CollectionUtils.isEmpty(conflictKeys)) {
+            List<String> updates = columns.stream()
+                    .filter(column -> !conflictKeys.contains(column))
+                    .collect(Collectors.toList());
+            if (DBConstant.isPostgres(source.getDbType())) {
+                sb.append(" ON CONFLICT ")
+                        .append(conflictKeys.stream().map(SqlBuild::addDoubleQuotes).collect(Collectors.joining(",", "(", ")")));
+                if (updates.isEmpty()) {
+                    sb.append(" DO NOTHING");
+                } else {
+                    sb.append(" DO UPDATE SET ").append(updates.stream()
+                            .map(column -> addDoubleQuotes(column) + "=EXCLUDED." + addDoubleQuotes(column))
+                            .collect(Collectors.joining(",")));
+                }
+            } else if (onDuplicateKey) {
+                List<String> sets = updates.isEmpty() ? conflictKeys : updates;
+                sb.append(" ON DUPLICATE KEY UPDATE ").append(sets.stream()
+                        .map(column -> addBackQuotes(column) + "=VALUES(" + addBackQuotes(column) + ")")
+                        .collect(Collectors.joining(",")));
+            } else {
+                throw new UnsupportedOperationException(source.getDbType() + SPACE + "不支持UPSERT");
+            }
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * 在connection上批量写入，每{@link #commitInterval}批提交一次，异常时回滚未提交部分
+     *
+     * @param connection     连接，调用方负责关闭
+     * @param rows           行数据
+     * @param source         数据源
+     * @param onDuplicateKey 非PostgreSQL协议时是否使用ON DUPLICATE KEY UPDATE
+     * @return 写入统计
+     */
+    public BatchResult write(Connection connection, Iterable<Object[]> rows, DatabaseConfig source,
+                             boolean onDuplicateKey) throws SQLException {
+        if (CollectionUtils.isEmpty(columns)) {
+            throw new IllegalArgumentException("批量写入字段列表不能为空");
+        }
+        if (batchSize <= 0 || commitInterval <= 0) {
+            throw new IllegalArgumentException("batchSize与commitInterval必须大于0");
+        }
+
+        int rowsPerStatement = multiValues ? Math.max(1, Math.min(batchSize, MAX_PARAMS / columns.size())) : 1;
+        long start = System.nanoTime();
+        long rowCount = 0;
+        long batchCount = 0;
+
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try (PreparedStatement ps = connection.prepareStatement(sqlBuild(source, rowsPerStatement, onDuplicateKey))) {
+            List<Object[]> buffer = new ArrayList<>(batchSize);
+            for (Object[] row : rows) {
+                buffer.add(row);
+                if (buffer.size() == batchSize) {
+                    rowCount += flush(connection, ps, buffer, rowsPerStatement, source, onDuplicateKey);
+                    if (++batchCount % commitInterval == 0) {
+                        connection.commit();
+                    }
+                }
+            }
+            if (!buffer.isEmpty()) {
+                rowCount += flush(connection, ps, buffer, rowsPerStatement, source, onDuplicateKey);
+                batchCount++;
+            }
+            connection.commit();
+        } catch (SQLException | RuntimeException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+
+        return new BatchResult(rowCount, batchCount, System.nanoTime() - start);
+    }
+
+    /**
+     * 写入一批数据：整数倍rowsPerStatement的部分复用ps批量执行，余下部分单独拼接一条语句
+     */
+    private int flush(Connection connection, PreparedStatement ps, List<Object[]> buffer, int rowsPerStatement,
+                      DatabaseConfig source, boolean onDuplicateKey) throws SQLException {
+        int size = buffer.size();
+        int full = size / rowsPerStatement * rowsPerStatement;
+
+        for (int i = 0; i < full; i += rowsPerStatement) {
+            bind(ps, buffer.subList(i, i + rowsPerStatement), source);
+            ps.addBatch();
+        }
+        if (full > 0) {
+            ps.executeBatch();
+        }
+
+        if (full < size) {
+            try (PreparedStatement tail = connection.prepareStatement(sqlBuild(source, size - full, onDuplicateKey))) {
+                bind(tail, buffer.subList(full, size), source);
+                tail.executeUpdate();
+            }
+        }
+
+        buffer.clear();
+        return size;
+    }
+
+    /**
+     * MySQL默认不把双引号当作标识符引号，使用反引号
+     */
+    private static String quote(String column, String dbType) {
+        return DBConstant.MYSQL.equals(dbType) ? addBackQuotes(column) : addDoubleQuotes(column);
+    }
+
+    private void bind(PreparedStatement ps, List<Object[]> rows, DatabaseConfig source) throws SQLException {
+        List<Object> params = new ArrayList<>(rows.size() * columns.size());
+        for (Object[] row : rows) {
+            if (row.length != columns.size()) {
+                throw new IllegalArgumentException("行数据与字段列表长度不一致：" + Arrays.toString(row));
+            }
+            params.addAll(Arrays.asList(row));
+        }
+        DBPoolsManage.setParams(ps, params, source);
+    }
+}
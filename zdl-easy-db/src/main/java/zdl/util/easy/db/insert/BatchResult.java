@@ -0,0 +1,54 @@
+package zdl.util.easy.db.insert;
+
+import lombok.Getter;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 批量写入统计
+ *
+ * @author ZDLegend
+ * @version 1.0
+ * @date 2026/10/16/ 15:24
+ */
+@Getter
+public class BatchResult {
+
+    /**
+     * 写入行数
+     */
+    private final long rows;
+
+    /**
+     * 执行批数
+     */
+    private final long batches;
+
+    /**
+     * 耗时（纳秒）
+     */
+    private final long elapsedNanos;
+
+    public BatchResult(long rows, long batches, long elapsedNanos) {
+        this.rows = rows;
+        this.batches = batches;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public long getElapsedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+    }
+
+    /**
+     * @return 每秒写入行数
+     */
+    public double getRowsPerSecond() {
+        return elapsedNanos == 0 ? 0 : rows * 1e9 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("BatchResult{rows=%d, batches=%d, elapsed=%dms, rows/s=%.1f}",
+                rows, batches, getElapsedMillis(), getRowsPerSecond());
+    }
+}
@@ -0,0 +1,117 @@
+package zdl.util.easy.db.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 以2的幂为桶边界的无锁直方图，第i个桶统计[2^(i-1), 2^i)范围的值，第0个桶统计0
+ *
+ * @author ZDLegend
+ * @version 1.0
+ * @date 2026/10/16/ 19:10
+ */
+public class Histogram {
+
+    static final int BUCKETS = 64;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    public Histogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * @param value 记录值，小于0时按0记录
+     */
+    public void record(long value) {
+        value = Math.max(value, 0);
+        buckets[Long.SIZE - Long.numberOfLeadingZeros(value)].increment();
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    public Snapshot snapshot() {
+        long[] counts = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets[i].sum();
+        }
+        return new Snapshot(counts, sum.sum(), max.get());
+    }
+
+    /**
+     * 直方图快照，可合并多个连接池的快照
+     */
+    public static class Snapshot {
+
+        public static final Snapshot EMPTY = new Snapshot(new long[BUCKETS], 0, 0);
+
+        private final long[] buckets;
+        private final long count;
+        private final long sum;
+        private final long max;
+
+        Snapshot(long[] buckets, long sum, long max) {
+            this.buckets = buckets;
+            this.sum = sum;
+            this.max = max;
+            long total = 0;
+            for (long bucket : buckets) {
+                total += bucket;
+            }
+            this.count = total;
+        }
+
+        public Snapshot merge(Snapshot other) {
+            long[] merged = new long[BUCKETS];
+            for (int i = 0; i < BUCKETS; i++) {
+                merged[i] = buckets[i] + other.buckets[i];
+            }
+            return new Snapshot(merged, sum + other.sum, Math.max(max, other.max));
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getSum() {
+            return sum;
+        }
+
+        public long getMax() {
+            return max;
+        }
+
+        public double getMean() {
+            return count == 0 ? 0 : (double) sum / count;
+        }
+
+        /**
+         * @param quantile 分位数，取值(0, 1]
+         * @return 分位值所在桶的上边界，不超过最大值
+         */
+        public long getPercentile(double quantile) {
+            if (count == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(quantile * count);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += buckets[i];
+                if (seen >= rank) {
+                    return i == 0 ? 0 : Math.min(max, i == BUCKETS - 1 ? Long.MAX_VALUE : (1L << i) - 1);
+                }
+            }
+            return max;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("{count=%d, mean=%.1f, p50=%d, p95=%d, p99=%d, max=%d}",
+                    count, getMean(), getPercentile(0.5), getPercentile(0.95), getPercentile(0.99), max);
+        }
+    }
+}
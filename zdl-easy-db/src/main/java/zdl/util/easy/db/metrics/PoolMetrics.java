@@ -0,0 +1,137 @@
+package zdl.util.easy.db.metrics;
+
+import lombok.Getter;
+
+/**
+ * 连接池指标快照，Druid与Hikari连接池统一口径
+ *
+ * @author ZDLegend
+ * @version 1.0
+ * @date 2026/10/16/ 19:20
+ */
+@Getter
+public class PoolMetrics {
+
+    /**
+     * 连接池名称，合并后为合并初始值的名称
+     */
+    private final String name;
+
+    /**
+     * 借出中的连接数
+     */
+    private final int active;
+
+    /**
+     * 池中空闲连接数
+     */
+    private final int idle;
+
+    /**
+     * 等待获取连接的线程数
+     */
+    private final int pending;
+
+    /**
+     * 最大连接数
+     */
+    private final int max;
+
+    /**
+     * 获取连接等待时间分布（微秒）
+     */
+    private final Histogram.Snapshot acquireMicros;
+
+    /**
+     * 连接借出时长分布（毫秒）
+     */
+    private final Histogram.Snapshot usageMillis;
+
+    /**
+     * 获取连接超时次数
+     */
+    private final long timeoutCount;
+
+    /**
+     * PSCache命中次数，连接池不支持PSCache时为0
+     */
+    private final long statementCacheHits;
+
+    /**
+     * PSCache未命中次数，连接池不支持PSCache时为0
+     */
+    private final long statementCacheMisses;
+
+    public PoolMetrics(String name, int active, int idle, int pending, int max, PoolMetricsRecorder recorder,
+                       long statementCacheHits, long statementCacheMisses) {
+        this(name, active, idle, pending, max, recorder.getAcquireMicros(), recorder.getUsageMillis(),
+                recorder.getTimeoutCount(), statementCacheHits, statementCacheMisses);
+    }
+
+    private PoolMetrics(String name, int active, int idle, int pending, int max,
+                        Histogram.Snapshot acquireMicros, Histogram.Snapshot usageMillis, long timeoutCount,
+                        long statementCacheHits, long statementCacheMisses) {
+        this.name = name;
+        this.active = active;
+        this.idle = idle;
+        this.pending = pending;
+        this.max = max;
+        this.acquireMicros = acquireMicros;
+        this.usageMillis = usageMillis;
+        this.timeoutCount = timeoutCount;
+        this.statementCacheHits = statementCacheHits;
+        this.statementCacheMisses = statementCacheMisses;
+    }
+
+    /**
+     * @return 空快照，用于合并的初始值
+     */
+    public static PoolMetrics empty(String name) {
+        return new PoolMetrics(name, 0, 0, 0, 0, Histogram.Snapshot.EMPTY, Histogram.Snapshot.EMPTY,
+                0, 0, 0);
+    }
+
+    /**
+     * 合并两个连接池的快照：连接数与计数累加，分布按桶合并
+     */
+    public PoolMetrics merge(PoolMetrics other) {
+        return new PoolMetrics(name,
+                active + other.active,
+                idle + other.idle,
+                pending + other.pending,
+                max + other.max,
+                acquireMicros.merge(other.acquireMicros),
+                usageMillis.merge(other.usageMillis),
+                timeoutCount + other.timeoutCount,
+                statementCacheHits + other.statementCacheHits,
+                statementCacheMisses + other.statementCacheMisses);
+    }
+
+    /**
+     * @return 池中连接总数
+     */
+    public int getTotal() {
+        return active + idle;
+    }
+
+    /**
+     * @return PSCache命中率，无访问时为0
+     */
+    public double getStatementCacheHitRate() {
+        long access = statementCacheHits + statementCacheMisses;
+        return access == 0 ? 0 : (double) statementCacheHits / access;
+    }
+
+    @Override
+    public String toString() {
+        return "PoolMetrics{name=" + name
+                + ", active=" + active
+                + ", idle=" + idle
+                + ", pending=" + pending
+                + ", max=" + max
+                + ", acquireMicros=" + acquireMicros
+                + ", usageMillis=" + usageMillis
+                + ", timeoutCount=" + timeoutCount
+                + ", statementCacheHitRate=" + String.format("%.3f", getStatementCacheHitRate()) + "}";
+    }
+}
@@ -0,0 +1,50 @@
+package zdl.util.easy.db.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 连接池事件记录器，由各连接池实现在获取、归还连接与获取超时时回调
+ *
+ * @author ZDLegend
+ * @version 1.0
+ * @date 2026/10/16/ 19:15
+ */
+public class PoolMetricsRecorder {
+
+    /**
+     * 获取连接等待时间（微秒）
+     */
+    private final Histogram acquire = new Histogram();
+
+    /**
+     * 连接借出时长（毫秒）
+     */
+    private final Histogram usage = new Histogram();
+
+    private final LongAdder timeouts = new LongAdder();
+
+    public void recordAcquireNanos(long elapsedNanos) {
+        acquire.record(TimeUnit.NANOSECONDS.toMicros(elapsedNanos));
+    }
+
+    public void recordUsageMillis(long elapsedMillis) {
+        usage.record(elapsedMillis);
+    }
+
+    public void recordTimeout() {
+        timeouts.increment();
+    }
+
+    public Histogram.Snapshot getAcquireMicros() {
+        return acquire.snapshot();
+    }
+
+    public Histogram.Snapshot getUsageMillis() {
+        return usage.snapshot();
+    }
+
+    public long getTimeoutCount() {
+        return timeouts.sum();
+    }
+}
@@ -0,0 +1,113 @@
+package zdl.util.easy.db.select;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import lombok.Getter;
+import zdl.util.common.json.JsonUtils;
+import zdl.util.easy.db.DBConstant;
+import zdl.util.easy.db.DBPoolsManage;
+import zdl.util.easy.db.DatabaseConfig;
+import zdl.util.easy.db.Filters;
+import zdl.util.easy.db.FiltersOptimizer;
+import zdl.util.easy.db.PreparedSql;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 分页查询总行数估算：避免每次翻页都执行与查询本身代价相当的COUNT(*)
+ * <ul>
+ *     <li>无过滤条件：PostgreSQL/Greenplum读取pg_class.reltuples</li>
+ *     <li>有过滤条件，或表未经ANALYZE、为分区父表（reltuples不可用）：读取EXPLAIN (FORMAT JSON)的Plan Rows</li>
+ *     <li>估算值小于{@link #exactThreshold}时改为执行COUNT(*)，此时代价很小且结果精确</li>
+ *     <li>其他数据库总是执行COUNT(*)；过滤条件恒假时直接返回0</li>
+ * </ul>
+ * 估算值依赖数据库统计信息的新鲜程度，返回的{@link RowCount#isExact()}标识是否精确
+ *
+ * @author ZDLegend
+ * @version 1.0
+ * @date 2026/10/16/ 22:10
+ */
+@Getter
+public class CountEstimator {
+
+    public static final long DEFAULT_EXACT_THRESHOLD = 10000;
+
+    private static final String RELTUPLES_SQL = "SELECT reltuples::bigint FROM pg_class WHERE oid = to_regclass(?)";
+    private static final String EXPLAIN_HEAD = "EXPLAIN (FORMAT JSON) SELECT 1";
+
+    /**
+     * 估算值小于该值时执行精确计数
+     */
+    private final long exactThreshold;
+
+    public CountEstimator() {
+        this(DEFAULT_EXACT_THRESHOLD);
+    }
+
+    public CountEstimator(long exactThreshold) {
+        this.exactThreshold = exactThreshold;
+    }
+
+    /**
+     * 统计查询条件命中的总行数，忽略字段、排序与分页
+     *
+     * @param select 查询条件
+     * @param config 数据源
+     * @return 总行数
+     */
+    public RowCount count(Select select, DatabaseConfig config) throws SQLException {
+        Filters optimized = select.getFilters() != null ? FiltersOptimizer.optimize(select.getFilters()) : null;
+        if (optimized != null && FiltersOptimizer.isAlwaysFalse(optimized)) {
+            return RowCount.exact(0);
+        }
+        if (!DBConstant.isPostgres(config.getDbType())) {
+            return exactCount(select, config);
+        }
+
+        long estimate = -1;
+        if (optimized == null || FiltersOptimizer.isAlwaysTrue(optimized)) {
+            estimate = reltuples(config);
+        }
+        if (estimate <= 0) {
+            estimate = planRows(select, config);
+        }
+
+        if (estimate < exactThreshold) {
+            return exactCount(select, config);
+        }
+        return RowCount.estimated(estimate);
+    }
+
+    /**
+     * 执行COUNT(*)
+     */
+    public static RowCount exactCount(Select select, DatabaseConfig config) throws SQLException {
+        return RowCount.exact(DBPoolsManage.query(select.countPreparedSqlBuild(config), config,
+                rs -> rs.next() ? rs.getLong(1) : 0L));
+    }
+
+    /**
+     * @return 表的统计行数，未统计（PostgreSQL 14起为-1）或表不存在时返回-1
+     */
+    private static long reltuples(DatabaseConfig config) throws SQLException {
+        PreparedSql sql = new PreparedSql(RELTUPLES_SQL, List.of(config.getLongTableName()));
+        return DBPoolsManage.query(sql, config, rs -> rs.next() ? rs.getLong(1) : -1L);
+    }
+
+    /**
+     * @return 执行计划顶层节点的估算行数
+     */
+    private static long planRows(Select select, DatabaseConfig config) throws SQLException {
+        String json = DBPoolsManage.query(select.filterPreparedSqlBuild(EXPLAIN_HEAD, config), config,
+                rs -> rs.next() ? rs.getString(1) : null);
+        if (json == null) {
+            return -1;
+        }
+        List<Map<String, Map<String, Object>>> plans = JsonUtils.readValue(json,
+                new TypeReference<List<Map<String, Map<String, Object>>>>() {
+                });
+        Object rows = plans.isEmpty() ? null : plans.get(0).get("Plan").get("Plan Rows");
+        return rows instanceof Number ? ((Number) rows).longValue() : -1;
+    }
+}
@@ -5,6 +5,9 @@ import lombok.Setter;
 
 /**
  * 分页类
+ * <p>
+ * 默认使用OFFSET分页；{@link Page#keyset}为true时使用游标分页：以上一页最后一行的排序字段值作为起点，
+ * 生成{@code WHERE (k1,k2) > (?,?) ORDER BY k1,k2 LIMIT ?}，翻页代价与页码无关，此时忽略{@link Page#offset}
  *
  * @author ZDLegend
  * @version 1.0
@@ -15,4 +18,14 @@ import lombok.Setter;
 public class Page {
     private int offset;
     private int limit;
+
+    /**
+     * 是否使用游标分页
+     */
+    private boolean keyset;
+
+    /**
+     * 游标分页起点，由{@link Select#nextCursor(zdl.util.easy.db.Row)}生成，为空时查询第一页
+     */
+    private String cursor;
 }
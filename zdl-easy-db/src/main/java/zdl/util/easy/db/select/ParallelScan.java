@@ -0,0 +1,374 @@
+package zdl.util.easy.db.select;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import zdl.util.easy.db.Cursor;
+import zdl.util.easy.db.DBPoolsManage;
+import zdl.util.easy.db.DatabaseConfig;
+import zdl.util.easy.db.EasyDBException;
+import zdl.util.easy.db.Filter;
+import zdl.util.easy.db.Filters;
+import zdl.util.easy.db.FiltersOptimizer;
+import zdl.util.easy.db.MergingIterator;
+import zdl.util.easy.db.PreparedSql;
+import zdl.util.easy.db.Row;
+import zdl.util.easy.db.SqlBuild;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static zdl.util.easy.db.FilterConstant.*;
+import static zdl.util.easy.db.SqlBuild.addDoubleQuotes;
+
+/**
+ * 按拆分字段范围并行扫描{@link Select}
+ * <p>
+ * 先查询拆分字段在过滤条件下的最小值与最大值，将区间等分为{@link #parallelism}段，每段与原过滤条件AND后
+ * 在独立连接上以游标并行查询，结果合并为一个流：
+ * <ul>
+ *     <li>设置了{@link Select#getSort()}时各段按相同排序查询，按{@link Sort#comparator()}多路归并，整体有序</li>
+ *     <li>未设置排序时按到达顺序输出</li>
+ * </ul>
+ * 首段不设下界并包含拆分字段为空的行，末段不设上界，因此边界值的精度与时区不影响结果完整性。
+ * 不支持分页，用于导出等全量扫描场景
+ *
+ * @author ZDLegend
+ * @version 1.0
+ * @date 2026/10/16/ 20:10
+ */
+@Getter
+@Setter
+public class ParallelScan {
+    private static final Logger logger = LoggerFactory.getLogger(ParallelScan.class);
+
+    private static final Object END = new Object();
+    private static final long POLL_MILLIS = 100;
+    private static final AtomicInteger SCAN_NUMBER = new AtomicInteger();
+
+    /**
+     * 查询条件，不能设置分页
+     */
+    private Select select;
+
+    /**
+     * 拆分字段，须为数值或时间类型，最好有索引
+     */
+    private String splitColumn;
+
+    /**
+     * 并行度，小于等于0时使用{@link DatabaseConfig#getMaxConnection()}的一半，为同一数据源的其他查询留出连接
+     */
+    private int parallelism;
+
+    /**
+     * 并行扫描并返回惰性流，流须关闭以停止扫描并归还连接
+     *
+     * @param config 数据源
+     * @return 惰性流
+     */
+    public Stream<Row> stream(DatabaseConfig config) throws SQLException {
+        if (select == null || StringUtils.isBlank(splitColumn)) {
+            throw new IllegalArgumentException("并行扫描须指定查询条件与拆分字段");
+        }
+        if (select.getPage() != null) {
+            throw new IllegalArgumentException("并行扫描不支持分页");
+        }
+
+        Filters filters = select.getFilters();
+        if (filters != null && FiltersOptimizer.isAlwaysFalse(FiltersOptimizer.optimize(filters))) {
+            return Stream.empty();
+        }
+
+        int n = parallelism > 0 ? parallelism : Math.max(1, config.getMaxConnection() / 2);
+        Object[] range = DBPoolsManage.query(rangeSql(config), config,
+                rs -> rs.next() ? new Object[]{rs.getObject(1), rs.getObject(2)} : new Object[2]);
+        List<String> bounds = range[0] == null ? Collections.emptyList() : split(range[0], range[1], n);
+
+        List<Select> parts = new ArrayList<>();
+        if (bounds.isEmpty()) {
+            parts.add(select);
+        } else {
+            for (int i = 0; i <= bounds.size(); i++) {
+                parts.add(part(i == 0 ? null : bounds.get(i - 1), i == bounds.size() ? null : bounds.get(i)));
+            }
+        }
+        logger.debug("并行扫描{}，拆分字段{}，共{}段", config.getLongTableName(), splitColumn, parts.size());
+
+        Scan scan = new Scan(parts, config);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(scan.iterator(),
+                Spliterator.ORDERED | Spliterator.NONNULL), false).onClose(scan::close);
+    }
+
+    private PreparedSql rangeSql(DatabaseConfig config) {
+        String column = addDoubleQuotes(splitColumn);
+        StringBuilder sb = new StringBuilder(SELECT).append(" MIN(").append(column).append("),MAX(").append(column)
+                .append(") ").append(FROM).append(SPACE).append(config.getLongTableName())
+                .append(SPACE).append(WHERE).append(SPACE);
+        List<Object> params = new ArrayList<>();
+        if (select.getFilters() != null) {
+            SqlBuild.preparedSqlBuild(sb, params, select.getFilters());
+        } else {
+            sb.append(TRUE_CONDITION);
+        }
+        return new PreparedSql(sb.toString(), params);
+    }
+
+    /**
+     * 第i段：lower &lt;= splitColumn &lt; upper，lower为空时包含空值，upper为空时不设上界
+     */
+    private Select part(String lower, String upper) {
+        Filters range = new Filters();
+        List<Filter> filter = new ArrayList<>();
+        if (lower != null) {
+            filter.add(filter(GTE, lower));
+        }
+        if (upper != null) {
+            if (lower == null) {
+                Filters lowest = new Filters();
+                lowest.setOperator(OR);
+                lowest.setFilter(List.of(filter(LT, upper), filter(IS, IS_NULL)));
+                range.setFilters(new ArrayList<>(List.of(lowest)));
+            } else {
+                filter.add(filter(LT, upper));
+            }
+        }
+        range.setFilter(filter);
+        if (select.getFilters() != null) {
+            if (range.getFilters() == null) {
+                range.setFilters(new ArrayList<>());
+            }
+            range.getFilters().add(select.getFilters());
+        }
+
+        Select part = new Select();
+        part.setFields(select.getFields());
+        part.setSort(select.getSort());
+        part.setFilters(range);
+        return part;
+    }
+
+    private Filter filter(String operator, String value) {
+        Filter filter = new Filter();
+        filter.setField(splitColumn);
+        filter.setOperator(operator);
+        filter.setValue(value);
+        return filter;
+    }
+
+    /**
+     * 计算n-1个内部分界值，相同的分界值只保留一个
+     */
+    static List<String> split(Object min, Object max, int n) {
+        List<String> bounds = new ArrayList<>();
+        if (isIntegral(min) && isIntegral(max)) {
+            BigInteger lo = new BigDecimal(min.toString()).toBigInteger();
+            BigInteger width = new BigDecimal(max.toString()).toBigInteger().subtract(lo);
+            for (int i = 1; i < n; i++) {
+                BigInteger bound = lo.add(width.multiply(BigInteger.valueOf(i)).divide(BigInteger.valueOf(n)));
+                addBound(bounds, bound.compareTo(lo) > 0 ? bound.toString() : null);
+            }
+        } else if (min instanceof Number && max instanceof Number) {
+            BigDecimal lo = new BigDecimal(min.toString());
+            BigDecimal width = new BigDecimal(max.toString()).subtract(lo);
+            for (int i = 1; i < n; i++) {
+                BigDecimal bound = lo.add(width.multiply(BigDecimal.valueOf(i)).divide(BigDecimal.valueOf(n), MathContext.DECIMAL64));
+                addBound(bounds, bound.compareTo(lo) > 0 ? bound.toPlainString() : null);
+            }
+        } else {
+            long lo = epochMillis(min);
+            long width = epochMillis(max) - lo;
+            for (int i = 1; i < n; i++) {
+                long bound = lo + width / n * i;
+                addBound(bounds, bound > lo ? new Timestamp(bound).toString() : null);
+            }
+        }
+        return bounds;
+    }
+
+    private static void addBound(List<String> bounds, String bound) {
+        if (bound != null && (bounds.isEmpty() || !bounds.get(bounds.size() - 1).equals(bound))) {
+            bounds.add(bound);
+        }
+    }
+
+    private static boolean isIntegral(Object value) {
+        return value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte
+                || value instanceof BigInteger || (value instanceof BigDecimal && ((BigDecimal) value).scale() <= 0);
+    }
+
+    private static long epochMillis(Object value) {
+        if (value instanceof Date) {
+            return ((Date) value).getTime();
+        }
+        if (value instanceof LocalDateTime) {
+            return Timestamp.valueOf((LocalDateTime) value).getTime();
+        }
+        throw new IllegalArgumentException("拆分字段须为数值或时间类型：" + value.getClass().getName());
+    }
+
+    /**
+     * 一次并行扫描：每段一个生产线程与有界队列，消费方从队列中归并或按到达顺序读取
+     */
+    private final class Scan implements AutoCloseable {
+        private final DatabaseConfig config;
+        private final List<Select> parts;
+        private final List<BlockingQueue<Object>> queues = new ArrayList<>();
+        private final ExecutorService executor;
+
+        private volatile Throwable failure;
+        private volatile boolean closed;
+
+        private Scan(List<Select> parts, DatabaseConfig config) {
+            this.config = config;
+            this.parts = parts;
+
+            String name = "easy-db-scan-" + SCAN_NUMBER.incrementAndGet();
+            AtomicInteger threadNumber = new AtomicInteger();
+            this.executor = Executors.newFixedThreadPool(parts.size(), runnable -> {
+                Thread thread = new Thread(runnable, name + "-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+
+            boolean ordered = select.getSort() != null;
+            BlockingQueue<Object> shared = ordered ? null : new ArrayBlockingQueue<>(config.getFetchSize());
+            for (Select part : parts) {
+                BlockingQueue<Object> queue = ordered ? new ArrayBlockingQueue<>(config.getFetchSize()) : shared;
+                queues.add(queue);
+                executor.execute(() -> produce(part, queue));
+            }
+            //生产线程在各段读完后即退出，流读到末尾而未关闭时也不会遗留线程
+            executor.shutdown();
+        }
+
+        private Iterator<Row> iterator() {
+            if (select.getSort() == null) {
+                return new QueueIterator(queues.get(0), parts.size());
+            }
+            List<QueueIterator> sources = new ArrayList<>();
+            queues.forEach(queue -> sources.add(new QueueIterator(queue, 1)));
+            return new MergingIterator<>(sources, select.getSort().comparator());
+        }
+
+        private void produce(Select part, BlockingQueue<Object> queue) {
+            try (Cursor<Row> cursor = DBPoolsManage.cursor(part.preparedSqlBuild(config), config,
+                    config.getFetchSize(), Row.mapper())) {
+                while (cursor.hasNext()) {
+                    if (!offer(queue, cursor.next())) {
+                        return;
+                    }
+                }
+                offer(queue, END);
+            } catch (Throwable e) {
+                if (failure == null) {
+                    failure = e;
+                }
+            }
+        }
+
+        /**
+         * @return 扫描已关闭时返回false
+         */
+        private boolean offer(BlockingQueue<Object> queue, Object element) throws InterruptedException {
+            while (!queue.offer(element, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                if (closed || failure != null) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                if (!executor.awaitTermination(config.getTimeOutMs(), TimeUnit.MILLISECONDS)) {
+                    logger.warn("并行扫描线程未能按时结束：{}", config.getLongTableName());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        /**
+         * 读取队列直到收到ends个结束标记
+         */
+        private final class QueueIterator implements Iterator<Row> {
+            private final BlockingQueue<Object> queue;
+            private int ends;
+            private Object next;
+
+            private QueueIterator(BlockingQueue<Object> queue, int ends) {
+                this.queue = queue;
+                this.ends = ends;
+            }
+
+            @Override
+            public boolean hasNext() {
+                while (next == null && ends > 0) {
+                    Object element = poll();
+                    if (element == END) {
+                        ends--;
+                    } else {
+                        next = element;
+                    }
+                }
+                return next != null;
+            }
+
+            @Override
+            public Row next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Row row = (Row) next;
+                next = null;
+                return row;
+            }
+
+            private Object poll() {
+                try {
+                    Object element;
+                    while ((element = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS)) == null) {
+                        if (failure != null) {
+                            throw new EasyDBException("并行扫描失败", failure);
+                        }
+                        if (closed) {
+                            throw new IllegalStateException("并行扫描已关闭");
+                        }
+                    }
+                    return element;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new EasyDBException(e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package zdl.util.easy.db.select;
+
+import lombok.Getter;
+
+/**
+ * 总行数及其是否精确
+ *
+ * @author ZDLegend
+ * @version 1.0
+ * @date 2026/10/16/ 22:10
+ */
+@Getter
+public class RowCount {
+
+    /**
+     * 行数，估算时为数据库统计信息或执行计划给出的近似值
+     */
+    private final long count;
+
+    /**
+     * 是否为COUNT(*)得到的精确值
+     */
+    private final boolean exact;
+
+    private RowCount(long count, boolean exact) {
+        this.count = count;
+        this.exact = exact;
+    }
+
+    public static RowCount exact(long count) {
+        return new RowCount(count, true);
+    }
+
+    public static RowCount estimated(long count) {
+        return new RowCount(count, false);
+    }
+
+    @Override
+    public String toString() {
+        return (exact ? "" : "~") + count;
+    }
+}
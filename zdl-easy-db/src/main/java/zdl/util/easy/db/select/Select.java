@@ -2,16 +2,25 @@ package zdl.util.easy.db.select;
 
 import lombok.Getter;
 import lombok.Setter;
+import org.apache.commons.lang3.StringUtils;
 import org.springframework.util.CollectionUtils;
+import zdl.util.common.json.JsonUtils;
 import zdl.util.easy.db.DatabaseConfig;
 import zdl.util.easy.db.Filters;
+import zdl.util.easy.db.FiltersOptimizer;
+import zdl.util.easy.db.PreparedSql;
+import zdl.util.easy.db.Row;
+import zdl.util.easy.db.SqlAppender;
 import zdl.util.easy.db.SqlBuild;
+import zdl.util.easy.db.SqlTemplateCache;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
 
 import static zdl.util.easy.db.FilterConstant.*;
-import static zdl.util.easy.db.SqlBuild.addDoubleQuotes;
-import static zdl.util.easy.db.SqlBuild.addSpace;
+import static zdl.util.easy.db.SqlBuild.*;
 
 /**
  * SELECT数据库语句拼接类
@@ -45,27 +54,267 @@ public class Select {
     private Page page;
 
     public String sqlBuild(DatabaseConfig source) {
-        String tableName = source.getLongTableName();
-        String columns = ASTERISK;
-        if (!CollectionUtils.isEmpty(fields)) {
-            columns = String.join(",", fields);
+        try (SqlAppender sql = SqlAppender.open()) {
+            StringBuilder sb = sql.builder();
+            sb.append(SELECT).append(SPACE);
+            columns(sb);
+            sb.append(SPACE).append(FROM).append(SPACE).append(source.getLongTableName())
+                    .append(SPACE).append(WHERE).append(SPACE);
+
+            boolean seek = isKeyset() && page.getCursor() != null;
+            if (seek) {
+                sb.append('(');
+            }
+
+            if (filters != null) {
+                SqlBuild.sqlBuild(sb, FiltersOptimizer.optimize(filters));
+            } else {
+                sb.append(TRUE_CONDITION);
+            }
+
+            if (seek) {
+                sb.append(')').append(' ').append(AND).append(' ');
+                seekBuild(sb);
+                List<String> values = decodeCursor(page.getCursor());
+                for (int i = 0; i < values.size(); i++) {
+                    //游标由客户端回传，值须转义
+                    sb.append(i == 0 ? '(' : ',');
+                    SqlBuild.appendLiteral(sb, String.valueOf(values.get(i)), source.getDbType());
+                }
+                sb.append(')');
+            }
+
+            if (sort != null) {
+                sb.append(' ').append(ORDER_BY).append(' ');
+                orderBy(sb);
+            }
+            if (sort != null || page != null) {
+                sb.append(SPACE);
+            }
+
+            if (isKeyset()) {
+                sb.append(LIMIT).append(' ').append(page.getLimit()).append(' ');
+            } else if (page != null) {
+                sb.append(OFFSET).append(' ').append(page.getOffset()).append(' ')
+                        .append(LIMIT).append(' ').append(page.getLimit()).append(' ');
+            }
+
+            return sql.toString();
+        }
+    }
+
+    /**
+     * 拼接参数化sql语句，过滤条件的值与分页参数以'?'占位
+     *
+     * @param source 数据源
+     * @return sql模板与绑定值
+     */
+    public PreparedSql preparedSqlBuild(DatabaseConfig source) {
+        return preparedSqlBuild(source, SqlTemplateCache.getDefault());
+    }
+
+    /**
+     * 拼接参数化sql语句，sql模板按查询的结构特征从cache中获取，命中时只需收集绑定值
+     * <p>
+     * 过滤条件先经{@link FiltersOptimizer}化简，恒假时返回的语句标记为结果必然为空
+     *
+     * @param source 数据源
+     * @param cache  sql模板缓存
+     * @return sql模板与绑定值
+     */
+    public PreparedSql preparedSqlBuild(DatabaseConfig source, SqlTemplateCache cache) {
+        Filters optimized = filters != null ? FiltersOptimizer.optimize(filters) : null;
+        List<Object> params = new ArrayList<>();
+        String key;
+
+        try (SqlAppender shape = SqlAppender.open()) {
+            StringBuilder sb = shape.builder();
+            sb.append(SELECT).append('|').append(source.getDbType())
+                    .append('|').append(source.getLongTableName())
+                    .append('|');
+            columns(sb);
+            sb.append('|');
+            if (optimized != null) {
+                SqlBuild.shapeBuild(sb, params, optimized);
+            }
+            sb.append('|');
+            if (sort != null) {
+                for (String sortKey : sort.keys()) {
+                    sb.append(sortKey).append(',');
+                }
+                sb.append(SPACE).append(sort.getDirection());
+            }
+            sb.append('|');
+            if (isKeyset()) {
+                sb.append(page.getCursor() != null ? "SEEK" : LIMIT);
+                if (page.getCursor() != null) {
+                    params.addAll(decodeCursor(page.getCursor()));
+                }
+                params.add(page.getLimit());
+            } else if (page != null) {
+                sb.append(OFFSET);
+                params.add(page.getOffset());
+                params.add(page.getLimit());
+            }
+            key = shape.toString();
+        }
+
+        String sql = cache.get(key, () -> templateBuild(source, optimized));
+        return new PreparedSql(sql, params, optimized != null && FiltersOptimizer.isAlwaysFalse(optimized));
+    }
+
+    /**
+     * 拼接按过滤条件统计总行数的参数化sql语句，忽略字段、排序与分页
+     *
+     * @param source 数据源
+     * @return SELECT COUNT(*) FROM ... WHERE ...
+     */
+    public PreparedSql countPreparedSqlBuild(DatabaseConfig source) {
+        return filterPreparedSqlBuild("SELECT COUNT(*)", source);
+    }
+
+    /**
+     * 拼接以head开头、按过滤条件筛选的参数化sql语句
+     *
+     * @param head   FROM之前的部分
+     * @param source 数据源
+     * @return head FROM ... WHERE ...
+     */
+    PreparedSql filterPreparedSqlBuild(String head, DatabaseConfig source) {
+        List<Object> params = new ArrayList<>();
+        try (SqlAppender sql = SqlAppender.open()) {
+            StringBuilder sb = sql.builder();
+            sb.append(head).append(SPACE).append(FROM).append(SPACE).append(source.getLongTableName())
+                    .append(SPACE).append(WHERE).append(SPACE);
+            if (filters != null) {
+                SqlBuild.preparedSqlBuild(sb, params, FiltersOptimizer.optimize(filters));
+            } else {
+                sb.append(TRUE_CONDITION);
+            }
+            return new PreparedSql(sql.toString(), params);
+        }
+    }
+
+    /**
+     * 拼接sql模板，结构与绑定值顺序须与{@link #preparedSqlBuild(DatabaseConfig, SqlTemplateCache)}一致
+     */
+    private String templateBuild(DatabaseConfig source, Filters filters) {
+        StringBuilder sb = new StringBuilder();
+        List<Object> params = new ArrayList<>();
+
+        sb.append(SELECT).append(SPACE);
+        columns(sb);
+        sb.append(SPACE).append(FROM).append(SPACE).append(source.getLongTableName())
+                .append(SPACE).append(WHERE).append(SPACE);
+
+        boolean seek = isKeyset() && page.getCursor() != null;
+        if (seek) {
+            sb.append('(');
         }
 
-        String where = TRUE_CONDITION;
         if (filters != null) {
-            where = SqlBuild.sqlBuild(filters);
+            SqlBuild.preparedSqlBuild(sb, params, filters);
+        } else {
+            sb.append(TRUE_CONDITION);
+        }
+
+        if (seek) {
+            sb.append(')').append(addSpace(AND));
+            seekBuild(sb);
+            for (int i = 0; i < sort.keys().size(); i++) {
+                sb.append(i == 0 ? "(?" : ",?");
+            }
+            sb.append(')');
         }
 
         if (sort != null) {
-            where = where + addSpace(ORDER_BY) + addDoubleQuotes(sort.getField()) + addSpace(sort.getDirection());
+            sb.append(addSpace(ORDER_BY));
+            orderBy(sb);
+        }
+
+        if (isKeyset()) {
+            sb.append(SPACE).append(LIMIT).append(" ?");
+        } else if (page != null) {
+            sb.append(SPACE).append(OFFSET).append(" ? ").append(LIMIT).append(" ?");
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * 根据本页最后一行生成下一页的游标
+     *
+     * @param last 本页最后一行，须包含全部排序字段
+     * @return 游标，设置到{@link Page#setCursor(String)}查询下一页
+     */
+    public String nextCursor(Row last) {
+        checkKeyset();
+        List<String> values = new ArrayList<>();
+        for (String key : sort.keys()) {
+            Object value = last.get(key);
+            if (value == null) {
+                throw new IllegalArgumentException("游标分页的排序字段值不能为空：" + key);
+            }
+            values.add(value.toString());
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(JsonUtils.writeValueAsByte(values));
+    }
+
+    private List<String> decodeCursor(String cursor) {
+        List<String> values = JsonUtils.parseArray(
+                new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8), String.class);
+        if (values.size() != sort.keys().size()) {
+            throw new IllegalArgumentException("游标与排序字段不匹配：" + sort.keys());
         }
+        return values;
+    }
+
+    private boolean isKeyset() {
+        if (page == null || !page.isKeyset()) {
+            return false;
+        }
+        checkKeyset();
+        return true;
+    }
 
-        if (page != null) {
-            where = where
-                    + OFFSET + addSpace(String.valueOf(page.getOffset()))
-                    + LIMIT + addSpace(String.valueOf(page.getLimit()));
+    private void checkKeyset() {
+        if (sort == null || StringUtils.isBlank(sort.getTiebreaker())) {
+            throw new IllegalArgumentException("游标分页必须指定排序字段及唯一字段tiebreaker");
         }
+    }
 
-        return String.format(SELECT_FORMAT, columns, tableName, where);
+    /**
+     * 拼接游标分页起点条件的左半部分，如：("k1","k2") &gt;
+     */
+    private void seekBuild(StringBuilder sb) {
+        List<String> keys = sort.keys();
+        for (int i = 0; i < keys.size(); i++) {
+            sb.append(i == 0 ? "(" : ",").append(addDoubleQuotes(keys.get(i)));
+        }
+        sb.append(DESC.equalsIgnoreCase(sort.getDirection()) ? ") < " : ") > ");
+    }
+
+    private void orderBy(StringBuilder sb) {
+        List<String> keys = sort.keys();
+        for (int i = 0; i < keys.size(); i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append('"').append(keys.get(i)).append('"').append(SPACE).append(sort.getDirection());
+        }
+    }
+
+    private void columns(StringBuilder sb) {
+        if (CollectionUtils.isEmpty(fields)) {
+            sb.append(ASTERISK);
+            return;
+        }
+        for (int i = 0; i < fields.size(); i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(fields.get(i));
+        }
     }
 }
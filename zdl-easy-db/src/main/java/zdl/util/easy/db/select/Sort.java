@@ -2,7 +2,14 @@ package zdl.util.easy.db.select;
 
 import lombok.Getter;
 import lombok.Setter;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.util.CollectionUtils;
 import zdl.util.easy.db.FilterConstant;
+import zdl.util.easy.db.Row;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
 
 /**
  * 排序类
@@ -24,4 +31,55 @@ public class Sort {
      * 排序字段，枚举：{@link FilterConstant#SORT_OPE}
      */
     private String direction;
+
+    /**
+     * 次级排序字段，与{@link Sort#field}使用相同的排序方向
+     */
+    private List<String> thenBy;
+
+    /**
+     * 唯一字段（如主键），作为最后一个排序字段保证排序结果唯一，游标分页时必须设置
+     */
+    private String tiebreaker;
+
+    /**
+     * @return 全部排序字段：{@link Sort#field}、{@link Sort#thenBy}、{@link Sort#tiebreaker}，已去重
+     */
+    public List<String> keys() {
+        List<String> keys = new ArrayList<>();
+        keys.add(field);
+        if (!CollectionUtils.isEmpty(thenBy)) {
+            thenBy.stream()
+                    .filter(key -> !keys.contains(key))
+                    .forEach(keys::add);
+        }
+        if (StringUtils.isNotBlank(tiebreaker) && !keys.contains(tiebreaker)) {
+            keys.add(tiebreaker);
+        }
+        return keys;
+    }
+
+    /**
+     * 按全部排序字段比较行，空值排序与PostgreSQL默认一致：升序时在后，降序时在前
+     * <p>
+     * 用于归并多个已排序的结果集，字段值须实现{@link Comparable}；字符串按Java自然顺序比较，可能与数据库排序规则不同
+     *
+     * @return 行比较器
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public Comparator<Row> comparator() {
+        List<String> keys = keys();
+        boolean desc = FilterConstant.DESC.equalsIgnoreCase(direction);
+        Comparator<Comparable> values = Comparator.nullsLast(Comparator.naturalOrder());
+        Comparator<Row> comparator = (a, b) -> {
+            for (String key : keys) {
+                int result = values.compare((Comparable) a.get(key), (Comparable) b.get(key));
+                if (result != 0) {
+                    return result;
+                }
+            }
+            return 0;
+        };
+        return desc ? comparator.reversed() : comparator;
+    }
 }
@@ -0,0 +1,179 @@
+package zdl.util.easy.db.shard;
+
+import org.springframework.util.CollectionUtils;
+import zdl.util.easy.db.SqlBuild;
+import zdl.util.easy.db.statistics.Count;
+import zdl.util.easy.db.statistics.Statistics;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static zdl.util.easy.db.FilterConstant.*;
+
+/**
+ * 分片统计的两阶段聚合：各分片执行部分聚合，再按分组字段合并
+ * <p>
+ * count/sum/min/max在分片上直接计算并在合并时累加或比较，avg改写为sum与count，合并后相除
+ *
+ * @author ZDLegend
+ * @version 1.0
+ * @date 2026/10/16/ 20:40
+ */
+class PartialStatistics {
+
+    private static final String PARTIAL_PREFIX = "p";
+
+    private final Statistics statistics;
+    private final List<String> groupBy;
+    private final List<Count> counts;
+
+    PartialStatistics(Statistics statistics) {
+        if (!CollectionUtils.isEmpty(statistics.getGroupingSets()) || statistics.isRollup()) {
+            throw new IllegalArgumentException("分片统计不支持groupingSets与rollup");
+        }
+        this.statistics = statistics;
+        this.groupBy = CollectionUtils.isEmpty(statistics.getGroupBy())
+                ? Collections.emptyList() : statistics.getGroupBy();
+        this.counts = CollectionUtils.isEmpty(statistics.getCounts())
+                ? Collections.emptyList() : statistics.getCounts();
+        for (Count count : counts) {
+            if (!COUNT_OPE.contains(count.getType()) || COUNT_DISTINCT.equals(count.getType())) {
+                throw new IllegalArgumentException("分片统计不支持的统计类型：" + count.getType());
+            }
+        }
+    }
+
+    /**
+     * @return 在各分片上执行的部分聚合
+     */
+    Statistics partial() {
+        List<Count> partials = new ArrayList<>();
+        for (int i = 0; i < counts.size(); i++) {
+            Count count = counts.get(i);
+            if (AVG.equals(count.getType())) {
+                partials.add(count(SUM, count.getField(), partialName(i, SUM)));
+                partials.add(count(COUNT, count.getField(), partialName(i, COUNT)));
+            } else {
+                partials.add(count(count.getType(), count.getField(), partialName(i, count.getType())));
+            }
+        }
+
+        Statistics partial = new Statistics();
+        partial.setFilters(statistics.getFilters());
+        partial.setGroupBy(statistics.getGroupBy());
+        partial.setCounts(partials);
+        return partial;
+    }
+
+    /**
+     * 按分组字段合并各分片的部分聚合结果
+     *
+     * @param shardResults 各分片结果
+     * @return 与单库执行{@link Statistics}相同结构的结果
+     */
+    List<Map<String, Object>> combine(List<List<Map<String, Object>>> shardResults) {
+        Map<List<Object>, Object[]> groups = new LinkedHashMap<>();
+        for (List<Map<String, Object>> rows : shardResults) {
+            for (Map<String, Object> row : rows) {
+                List<Object> key = new ArrayList<>(groupBy.size());
+                groupBy.forEach(column -> key.add(row.get(SqlBuild.columnLabel(column))));
+                Object[] state = groups.computeIfAbsent(key, k -> new Object[counts.size() * 2]);
+                for (int i = 0; i < counts.size(); i++) {
+                    accumulate(state, i, counts.get(i).getType(), row);
+                }
+            }
+        }
+
+        if (groupBy.isEmpty() && groups.isEmpty()) {
+            //无分组时与单库一致，总是返回一行
+            groups.put(Collections.emptyList(), new Object[counts.size() * 2]);
+        }
+
+        List<Map<String, Object>> result = new ArrayList<>(groups.size());
+        groups.forEach((key, state) -> {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (int i = 0; i < groupBy.size(); i++) {
+                row.put(SqlBuild.columnLabel(groupBy.get(i)), key.get(i));
+            }
+            for (int i = 0; i < counts.size(); i++) {
+                row.put(counts.get(i).outPutName(), finish(state, i, counts.get(i).getType()));
+            }
+            result.add(row);
+        });
+        return result;
+    }
+
+    private void accumulate(Object[] state, int i, String type, Map<String, Object> row) {
+        switch (type) {
+            case COUNT:
+                state[i * 2] = add(state[i * 2], row.get(partialName(i, COUNT)));
+                break;
+            case SUM:
+                state[i * 2] = add(state[i * 2], row.get(partialName(i, SUM)));
+                break;
+            case AVG:
+                state[i * 2] = add(state[i * 2], row.get(partialName(i, SUM)));
+                state[i * 2 + 1] = add(state[i * 2 + 1], row.get(partialName(i, COUNT)));
+                break;
+            case MIN:
+                state[i * 2] = extreme(state[i * 2], row.get(partialName(i, MIN)), -1);
+                break;
+            case MAX:
+                state[i * 2] = extreme(state[i * 2], row.get(partialName(i, MAX)), 1);
+                break;
+            default:
+                throw new IllegalArgumentException("分片统计不支持的统计类型：" + type);
+        }
+    }
+
+    private Object finish(Object[] state, int i, String type) {
+        if (COUNT.equals(type)) {
+            return state[i * 2] == null ? 0L : ((BigDecimal) state[i * 2]).longValueExact();
+        }
+        if (AVG.equals(type)) {
+            BigDecimal sum = (BigDecimal) state[i * 2];
+            BigDecimal count = (BigDecimal) state[i * 2 + 1];
+            if (sum == null || count == null || count.signum() == 0) {
+                return null;
+            }
+            return sum.divide(count, MathContext.DECIMAL64);
+        }
+        return state[i * 2];
+    }
+
+    private static BigDecimal add(Object total, Object value) {
+        if (value == null) {
+            return (BigDecimal) total;
+        }
+        BigDecimal decimal = value instanceof BigDecimal ? (BigDecimal) value : new BigDecimal(value.toString());
+        return total == null ? decimal : ((BigDecimal) total).add(decimal);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object extreme(Object current, Object value, int sign) {
+        if (value == null) {
+            return current;
+        }
+        if (current == null) {
+            return value;
+        }
+        return Integer.signum(((Comparable) value).compareTo(current)) == sign ? value : current;
+    }
+
+    private static String partialName(int index, String type) {
+        return PARTIAL_PREFIX + index + "_" + type;
+    }
+
+    private static Count count(String type, String field, String outPutField) {
+        Count count = new Count();
+        count.setType(type);
+        count.setField(field);
+        count.setOutPutField(outPutField);
+        return count;
+    }
+}
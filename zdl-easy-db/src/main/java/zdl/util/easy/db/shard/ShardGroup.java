@@ -0,0 +1,222 @@
+package zdl.util.easy.db.shard;
+
+import lombok.Getter;
+import org.apache.commons.dbutils.handlers.MapListHandler;
+import org.springframework.util.CollectionUtils;
+import zdl.util.common.CompletableFutureUtil;
+import zdl.util.easy.db.DBPoolsManage;
+import zdl.util.easy.db.DatabaseConfig;
+import zdl.util.easy.db.EasyDBException;
+import zdl.util.easy.db.Filter;
+import zdl.util.easy.db.Filters;
+import zdl.util.easy.db.MergingIterator;
+import zdl.util.easy.db.Row;
+import zdl.util.easy.db.RowMapper;
+import zdl.util.easy.db.select.Page;
+import zdl.util.easy.db.select.Select;
+import zdl.util.easy.db.statistics.Statistics;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+
+import static zdl.util.easy.db.FilterConstant.*;
+
+/**
+ * 分片组：一张逻辑表按分片字段分布在多个数据源上，查询并发下发到相关分片后合并
+ * <ul>
+ *     <li>{@link Select}：排序与分页下推到各分片（OFFSET分页时各分片取前offset+limit行），按排序多路归并后截取</li>
+ *     <li>{@link Statistics}：各分片执行部分聚合，按分组合并count/sum/min/max/avg</li>
+ *     <li>顶层AND条件中分片字段的eq/in条件用于裁剪分片，只查询可能包含数据的分片</li>
+ * </ul>
+ * 各分片通过{@link DBPoolsManage#queryAsync}执行，受各自的异步线程池与超时限制，结果在内存中合并
+ *
+ * @author ZDLegend
+ * @version 1.0
+ * @date 2026/10/16/ 20:30
+ */
+@Getter
+public class ShardGroup {
+
+    /**
+     * 分片数据源
+     */
+    private final List<DatabaseConfig> shards;
+
+    /**
+     * 分片字段
+     */
+    private final String shardKey;
+
+    /**
+     * 分片字段值到分片下标的路由
+     */
+    private final ToIntFunction<String> router;
+
+    public ShardGroup(List<DatabaseConfig> shards, String shardKey, ToIntFunction<String> router) {
+        if (CollectionUtils.isEmpty(shards)) {
+            throw new IllegalArgumentException("分片数据源不能为空");
+        }
+        this.shards = List.copyOf(shards);
+        this.shardKey = shardKey;
+        this.router = router;
+    }
+
+    /**
+     * 按分片字段值的hashCode取模路由
+     */
+    public static ShardGroup hashed(List<DatabaseConfig> shards, String shardKey) {
+        int size = shards.size();
+        return new ShardGroup(shards, shardKey, value -> Math.floorMod(value.hashCode(), size));
+    }
+
+    /**
+     * @param keyValue 分片字段值
+     * @return 该值所在的分片
+     */
+    public DatabaseConfig route(String keyValue) {
+        return shards.get(router.applyAsInt(keyValue));
+    }
+
+    /**
+     * 在相关分片上并发查询并合并
+     *
+     * @param select 查询条件，设置分页时须设置排序才能得到确定的结果
+     * @return 合并后的行，设置分页时最多{@link Page#getLimit()}行
+     */
+    public List<Row> select(Select select) throws SQLException {
+        Page page = select.getPage();
+        Select pushed = select;
+        if (page != null && !page.isKeyset()) {
+            Page shardPage = new Page();
+            shardPage.setLimit(page.getOffset() + page.getLimit());
+            pushed = new Select();
+            pushed.setFields(select.getFields());
+            pushed.setFilters(select.getFilters());
+            pushed.setSort(select.getSort());
+            pushed.setPage(shardPage);
+        }
+
+        Select shardSelect = pushed;
+        List<List<Row>> results = gather(prune(select.getFilters()),
+                shard -> DBPoolsManage.queryAsync(shardSelect.preparedSqlBuild(shard), shard, rs -> {
+                    RowMapper<Row> mapper = Row.mapper();
+                    List<Row> rows = new ArrayList<>();
+                    while (rs.next()) {
+                        rows.add(mapper.mapRow(rs));
+                    }
+                    return rows;
+                }));
+
+        Iterator<Row> merged = select.getSort() != null
+                ? new MergingIterator<>(results.stream().map(List::iterator).collect(Collectors.toList()),
+                select.getSort().comparator())
+                : results.stream().flatMap(List::stream).iterator();
+
+        long skip = page != null && !page.isKeyset() ? page.getOffset() : 0;
+        long limit = page != null ? page.getLimit() : Long.MAX_VALUE;
+        List<Row> rows = new ArrayList<>();
+        for (; merged.hasNext() && rows.size() < limit; skip--) {
+            Row row = merged.next();
+            if (skip <= 0) {
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * 在相关分片上并发执行部分聚合并合并
+     *
+     * @param statistics 统计条件
+     * @return 与单库执行相同结构的统计结果
+     */
+    public List<Map<String, Object>> statistics(Statistics statistics) throws SQLException {
+        PartialStatistics partial = new PartialStatistics(statistics);
+        Statistics shardStatistics = partial.partial();
+        return partial.combine(gather(prune(statistics.getFilters()),
+                shard -> DBPoolsManage.queryAsync(shardStatistics.preparedSqlBuild(shard), shard, new MapListHandler())));
+    }
+
+    /**
+     * 根据顶层AND条件中分片字段的eq/in条件确定需要查询的分片，无法判断时返回全部分片
+     */
+    List<DatabaseConfig> prune(Filters filters) {
+        BitSet targets = targets(filters);
+        if (targets == null) {
+            return shards;
+        }
+        return targets.stream().mapToObj(shards::get).collect(Collectors.toList());
+    }
+
+    /**
+     * @return 可能命中的分片，null表示不限
+     */
+    private BitSet targets(Filters filters) {
+        if (filters == null || !AND.equals(filters.getOperator())) {
+            return null;
+        }
+
+        BitSet targets = null;
+        if (!CollectionUtils.isEmpty(filters.getFilter())) {
+            for (Filter filter : filters.getFilter()) {
+                if (!shardKey.equals(filter.getField()) || filter.getValue() == null) {
+                    continue;
+                }
+                BitSet matched = new BitSet(shards.size());
+                if (EQ.equals(filter.getOperator())) {
+                    matched.set(router.applyAsInt(filter.getValue()));
+                } else if (IN.equals(filter.getOperator())) {
+                    for (String value : filter.getValue().split(",")) {
+                        matched.set(router.applyAsInt(value));
+                    }
+                } else {
+                    continue;
+                }
+                targets = intersect(targets, matched);
+            }
+        }
+        if (!CollectionUtils.isEmpty(filters.getFilters())) {
+            for (Filters child : filters.getFilters()) {
+                targets = intersect(targets, targets(child));
+            }
+        }
+        return targets;
+    }
+
+    private static BitSet intersect(BitSet a, BitSet b) {
+        if (a == null) {
+            return b;
+        }
+        if (b != null) {
+            a.and(b);
+        }
+        return a;
+    }
+
+    private static <T> List<T> gather(List<DatabaseConfig> targets,
+                                      Function<DatabaseConfig, CompletableFuture<T>> query) throws SQLException {
+        if (targets.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<CompletableFuture<T>> futures = targets.stream().map(query).collect(Collectors.toList());
+        try {
+            //任一分片失败时立即返回并取消其余分片，不等待最慢的分片
+            return CompletableFutureUtil.allOf(futures).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof SQLException) {
+                throw (SQLException) e.getCause();
+            }
+            throw new EasyDBException("分片查询失败", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,416 @@
+package zdl.util.easy.db.statistics;
+
+import org.apache.commons.dbutils.handlers.MapListHandler;
+import org.springframework.util.CollectionUtils;
+import zdl.util.easy.db.Cursor;
+import zdl.util.easy.db.DBConstant;
+import zdl.util.easy.db.DBPoolsManage;
+import zdl.util.easy.db.DatabaseConfig;
+import zdl.util.easy.db.Filters;
+import zdl.util.easy.db.FiltersOptimizer;
+import zdl.util.easy.db.PreparedSql;
+import zdl.util.easy.db.Row;
+import zdl.util.easy.db.SqlAppender;
+import zdl.util.easy.db.SqlBuild;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static zdl.util.easy.db.FilterConstant.*;
+
+/**
+ * 抽样近似统计：以抽样代替全表扫描，按抽样比例放大结果并给出置信区间
+ * <ul>
+ *     <li>count/sum：抽样结果除以抽样概率q，方差按逐行独立抽样估计：count为n(1-q)/q²，sum为(1-q)Σx²/q²</li>
+ *     <li>avg：抽样均值，标准误差为sqrt((1-q)(Σx²-(Σx)²/n))/n</li>
+ *     <li>min/max：抽样中的最值，不放大，也没有置信区间</li>
+ *     <li>countDistinct：不抽样，数据库支持时（见{@link DBConstant#APPROX_DISTINCT_FUNCTION}）使用其近似函数；
+ *     PostgreSQL/Greenplum/MySQL在库内按32位哈希聚合出{@link HyperLogLog}寄存器，客户端只合并寄存器；
+ *     其他数据库在客户端计算，需全表扫描并逐行读取分组字段与去重字段</li>
+ * </ul>
+ * 结果行结构同{@link Statistics}，统计值为{@link Estimate}（min/max为原始值）。
+ * 抽样中未出现的小分组不会出现在结果中，除非其出现在去重计数结果中
+ *
+ * @author ZDLegend
+ * @version 1.0
+ * @date 2026/10/17/ 09:30
+ */
+public class ApproximateStatistics {
+
+    private static final String SAMPLE_ROWS = "sample_rows";
+    private static final String PARTIAL_PREFIX = "p";
+    private static final String REGISTER_GROUP = "hll_g";
+
+    private final Statistics statistics;
+    private final Sampling sampling;
+    private final List<String> groupBy;
+    private final List<Count> counts;
+
+    public ApproximateStatistics(Statistics statistics, Sampling sampling) {
+        if (!CollectionUtils.isEmpty(statistics.getGroupingSets()) || statistics.isRollup()) {
+            throw new IllegalArgumentException("近似统计不支持groupingSets与rollup");
+        }
+        this.statistics = statistics;
+        this.sampling = sampling;
+        this.groupBy = CollectionUtils.isEmpty(statistics.getGroupBy())
+                ? Collections.emptyList() : statistics.getGroupBy();
+        this.counts = CollectionUtils.isEmpty(statistics.getCounts())
+                ? Collections.emptyList() : statistics.getCounts();
+        for (Count count : counts) {
+            if (!COUNT_OPE.contains(count.getType())) {
+                throw new IllegalArgumentException("近似统计不支持的统计类型：" + count.getType());
+            }
+            if (COUNT_DISTINCT.equals(count.getType()) && ASTERISK.equals(count.getField())) {
+                throw new IllegalArgumentException("去重计数须指定字段");
+            }
+        }
+        sampling.fraction();
+    }
+
+    /**
+     * 执行抽样统计与去重计数并合并
+     *
+     * @param config 数据源
+     * @return 统计结果，统计值为{@link Estimate}
+     */
+    public List<Map<String, Object>> query(DatabaseConfig config) throws SQLException {
+        Map<List<Object>, Map<String, Object>> samples = new LinkedHashMap<>();
+        for (Map<String, Object> row : DBPoolsManage.query(samplePreparedSqlBuild(config), config,
+                new MapListHandler())) {
+            samples.put(groupKey(row), row);
+        }
+
+        Map<List<Object>, Map<Integer, Estimate>> distincts = hasDistinct()
+                ? distinctQuery(config) : Collections.emptyMap();
+        for (List<Object> key : distincts.keySet()) {
+            samples.putIfAbsent(key, Collections.emptyMap());
+        }
+
+        List<Map<String, Object>> result = new ArrayList<>(samples.size());
+        samples.forEach((key, sample) -> {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (int i = 0; i < groupBy.size(); i++) {
+                row.put(SqlBuild.columnLabel(groupBy.get(i)), key.get(i));
+            }
+            Map<Integer, Estimate> distinct = distincts.getOrDefault(key, Collections.emptyMap());
+            for (int i = 0; i < counts.size(); i++) {
+                Count count = counts.get(i);
+                row.put(count.outPutName(), COUNT_DISTINCT.equals(count.getType())
+                        ? distinct.getOrDefault(i, Estimate.of(0, 0)) : scale(i, count.getType(), sample));
+            }
+            result.add(row);
+        });
+        return result;
+    }
+
+    /**
+     * 拼接抽样统计语句：
+     * SELECT g,count(*) AS p0_n,... FROM t TABLESAMPLE BERNOULLI (1.0) WHERE (...) GROUP BY g
+     */
+    public PreparedSql samplePreparedSqlBuild(DatabaseConfig source) {
+        Filters optimized = statistics.getFilters() != null ? FiltersOptimizer.optimize(statistics.getFilters()) : null;
+        boolean tableSample = DBConstant.POSTGRESQL.equals(source.getDbType());
+        List<Object> params = new ArrayList<>();
+
+        try (SqlAppender sql = SqlAppender.open()) {
+            StringBuilder sb = sql.builder();
+            sb.append(SELECT).append(SPACE);
+            for (String column : groupBy) {
+                sb.append(column).append(',');
+            }
+            sb.append("count(*) AS ").append(SAMPLE_ROWS);
+            for (int i = 0; i < counts.size(); i++) {
+                partialBuild(sb, i, counts.get(i));
+            }
+
+            sb.append(SPACE).append(FROM).append(SPACE).append(source.getLongTableName());
+            if (tableSample) {
+                sb.append(" TABLESAMPLE ").append(Sampling.SYSTEM.equalsIgnoreCase(sampling.getMethod())
+                        ? Sampling.SYSTEM : Sampling.BERNOULLI)
+                        .append(" (").append(BigDecimal.valueOf(sampling.getPercent()).toPlainString()).append(')');
+                if (sampling.getSeed() != null) {
+                    sb.append(" REPEATABLE (").append(sampling.getSeed().intValue()).append(')');
+                }
+            }
+
+            sb.append(SPACE).append(WHERE).append(SPACE).append('(');
+            whereBuild(sb, params, optimized);
+            sb.append(')');
+            if (!tableSample) {
+                sb.append(SPACE).append(AND).append(SPACE)
+                        .append(DBConstant.RANDOM_FUNCTION.getOrDefault(source.getDbType(), "RANDOM()"))
+                        .append(" < ").append(BigDecimal.valueOf(sampling.fraction()).toPlainString());
+            }
+            groupByBuild(sb);
+
+            boolean alwaysEmpty = optimized != null && FiltersOptimizer.isAlwaysFalse(optimized) && !groupBy.isEmpty();
+            return new PreparedSql(sql.toString(), params, alwaysEmpty);
+        }
+    }
+
+    /**
+     * 拼接去重计数语句，不抽样：数据库支持近似去重时按分组计算；
+     * 支持32位哈希时（见{@link DBConstant#HASH32_FUNCTION}）在库内计算HyperLogLog寄存器，见{@link #registerPreparedSqlBuild}；
+     * 否则返回分组字段与全部去重字段供客户端计算，此时为全表扫描且逐行传输
+     *
+     * @return 没有去重计数时返回null
+     */
+    public PreparedSql distinctPreparedSqlBuild(DatabaseConfig source) {
+        if (!hasDistinct()) {
+            return null;
+        }
+        Filters optimized = statistics.getFilters() != null ? FiltersOptimizer.optimize(statistics.getFilters()) : null;
+        String function = DBConstant.APPROX_DISTINCT_FUNCTION.get(source.getDbType());
+        String hash = DBConstant.HASH32_FUNCTION.get(source.getDbType());
+        if (function == null && hash != null) {
+            return registerPreparedSqlBuild(source, optimized, hash);
+        }
+        List<Object> params = new ArrayList<>();
+
+        try (SqlAppender sql = SqlAppender.open()) {
+            StringBuilder sb = sql.builder();
+            sb.append(SELECT);
+            boolean first = true;
+            for (String column : groupBy) {
+                sb.append(first ? SPACE : ",").append(column);
+                first = false;
+            }
+            for (int i = 0; i < counts.size(); i++) {
+                if (!COUNT_DISTINCT.equals(counts.get(i).getType())) {
+                    continue;
+                }
+                sb.append(first ? SPACE : ",");
+                first = false;
+                if (function != null) {
+                    sb.append(function).append("(\"").append(counts.get(i).getField()).append("\") AS ")
+                            .append(partialName(i, "d"));
+                } else {
+                    sb.append('"').append(counts.get(i).getField()).append('"');
+                }
+            }
+
+            sb.append(SPACE).append(FROM).append(SPACE).append(source.getLongTableName())
+                    .append(SPACE).append(WHERE).append(SPACE);
+            whereBuild(sb, params, optimized);
+            if (function != null) {
+                groupByBuild(sb);
+            }
+
+            boolean alwaysEmpty = optimized != null && FiltersOptimizer.isAlwaysFalse(optimized);
+            return new PreparedSql(sql.toString(), params, alwaysEmpty);
+        }
+    }
+
+    /**
+     * 拼接库内计算HyperLogLog寄存器的语句，每个去重字段一段，以UNION ALL连接：
+     * SELECT hll_g0,0,h &amp; 16383,min(h &gt;&gt; 14) FROM (SELECT g AS hll_g0,HASH("f") AS h FROM t WHERE (...)) s
+     * WHERE h IS NOT NULL GROUP BY hll_g0,h &amp; 16383
+     * <p>
+     * 哈希低位为寄存器下标，高位越小前导零越多，取最小值即得寄存器，每个分组每个字段最多返回2^precision行
+     */
+    private PreparedSql registerPreparedSqlBuild(DatabaseConfig source, Filters optimized, String hash) {
+        int precision = HyperLogLog.DEFAULT_PRECISION;
+        String bucket = "(h & " + ((1 << precision) - 1) + ")";
+        List<Object> params = new ArrayList<>();
+
+        try (SqlAppender sql = SqlAppender.open()) {
+            StringBuilder sb = sql.builder();
+            boolean first = true;
+            for (int i = 0; i < counts.size(); i++) {
+                if (!COUNT_DISTINCT.equals(counts.get(i).getType())) {
+                    continue;
+                }
+                sb.append(first ? "" : " UNION ALL ").append(SELECT).append(SPACE);
+                first = false;
+                for (int g = 0; g < groupBy.size(); g++) {
+                    sb.append(REGISTER_GROUP).append(g).append(',');
+                }
+                sb.append(i).append(',').append(bucket).append(",min(h >> ").append(precision).append(')');
+
+                sb.append(SPACE).append(FROM).append(" (").append(SELECT).append(SPACE);
+                for (int g = 0; g < groupBy.size(); g++) {
+                    sb.append(groupBy.get(g)).append(" AS ").append(REGISTER_GROUP).append(g).append(',');
+                }
+                sb.append(String.format(hash, "\"" + counts.get(i).getField() + "\"")).append(" AS h ")
+                        .append(FROM).append(SPACE).append(source.getLongTableName())
+                        .append(SPACE).append(WHERE).append(SPACE);
+                whereBuild(sb, params, optimized);
+                sb.append(") s WHERE h IS NOT NULL ").append(GROUP_BY).append(SPACE);
+                for (int g = 0; g < groupBy.size(); g++) {
+                    sb.append(REGISTER_GROUP).append(g).append(',');
+                }
+                sb.append(bucket);
+            }
+
+            boolean alwaysEmpty = optimized != null && FiltersOptimizer.isAlwaysFalse(optimized);
+            return new PreparedSql(sql.toString(), params, alwaysEmpty);
+        }
+    }
+
+    private Map<List<Object>, Map<Integer, Estimate>> distinctQuery(DatabaseConfig config) throws SQLException {
+        PreparedSql sql = distinctPreparedSqlBuild(config);
+        Map<List<Object>, Map<Integer, Estimate>> result = new LinkedHashMap<>();
+
+        if (DBConstant.APPROX_DISTINCT_FUNCTION.containsKey(config.getDbType())) {
+            for (Map<String, Object> row : DBPoolsManage.query(sql, config, new MapListHandler())) {
+                Map<Integer, Estimate> estimates = result.computeIfAbsent(groupKey(row), k -> new LinkedHashMap<>());
+                for (int i = 0; i < counts.size(); i++) {
+                    if (COUNT_DISTINCT.equals(counts.get(i).getType())) {
+                        Object value = row.get(partialName(i, "d"));
+                        estimates.put(i, new Estimate(value == null ? 0 : toDouble(value), null, null));
+                    }
+                }
+            }
+            return result;
+        }
+
+        boolean registers = DBConstant.HASH32_FUNCTION.containsKey(config.getDbType());
+        Map<List<Object>, HyperLogLog[]> sketches = new LinkedHashMap<>();
+        try (Cursor<Row> cursor = DBPoolsManage.cursor(sql, config)) {
+            while (cursor.hasNext()) {
+                Row row = cursor.next();
+                List<Object> key = new ArrayList<>(groupBy.size());
+                for (int i = 0; i < groupBy.size(); i++) {
+                    key.add(row.get(i));
+                }
+                HyperLogLog[] sketch = sketches.computeIfAbsent(key, k -> new HyperLogLog[counts.size()]);
+                int column = groupBy.size();
+                if (registers) {
+                    //行结构：分组字段,去重统计下标,寄存器下标,寄存器最小高位
+                    int i = ((Number) row.get(column)).intValue();
+                    if (sketch[i] == null) {
+                        sketch[i] = new HyperLogLog(HyperLogLog.DEFAULT_PRECISION, Integer.SIZE);
+                    }
+                    sketch[i].addRest(((Number) row.get(column + 1)).intValue(),
+                            ((Number) row.get(column + 2)).longValue());
+                    continue;
+                }
+                for (int i = 0; i < counts.size(); i++) {
+                    if (COUNT_DISTINCT.equals(counts.get(i).getType())) {
+                        if (sketch[i] == null) {
+                            sketch[i] = new HyperLogLog();
+                        }
+                        sketch[i].add(row.get(column++));
+                    }
+                }
+            }
+        }
+
+        sketches.forEach((key, sketch) -> {
+            Map<Integer, Estimate> estimates = new LinkedHashMap<>();
+            for (int i = 0; i < sketch.length; i++) {
+                if (sketch[i] != null) {
+                    long estimate = sketch[i].estimate();
+                    estimates.put(i, Estimate.of(estimate, sampling.getZ() * sketch[i].standardError() * estimate));
+                }
+            }
+            result.put(key, estimates);
+        });
+        return result;
+    }
+
+    /**
+     * 按抽样概率放大抽样结果
+     */
+    private Object scale(int i, String type, Map<String, Object> sample) {
+        double q = sampling.fraction();
+        double z = sampling.getZ();
+        double n = toDouble(sample.get(partialName(i, "n")));
+        Object sum = sample.get(partialName(i, "s"));
+        double squares = toDouble(sample.get(partialName(i, "q")));
+
+        switch (type) {
+            case COUNT:
+                return Estimate.of(n / q, z * Math.sqrt(n * (1 - q)) / q);
+            case SUM:
+                if (sum == null) {
+                    return new Estimate(null, null, null);
+                }
+                return Estimate.of(toDouble(sum) / q, z * Math.sqrt((1 - q) * squares) / q);
+            case AVG:
+                if (n == 0 || sum == null) {
+                    return new Estimate(null, null, null);
+                }
+                double s = toDouble(sum);
+                double deviation = Math.max(0, squares - s * s / n);
+                return Estimate.of(s / n, z * Math.sqrt((1 - q) * deviation) / n);
+            default:
+                return sample.get(partialName(i, "v"));
+        }
+    }
+
+    /**
+     * 拼接第i个统计在抽样语句中需要的部分聚合：count为n，sum为s与平方和q，avg为n、s、q，min/max为v
+     */
+    private static void partialBuild(StringBuilder sb, int i, Count count) {
+        String field = ASTERISK.equals(count.getField()) ? ASTERISK : "\"" + count.getField() + "\"";
+        switch (count.getType()) {
+            case COUNT:
+                partial(sb, "count(" + field + ")", i, "n");
+                break;
+            case AVG:
+                partial(sb, "count(" + field + ")", i, "n");
+                partial(sb, "sum(" + field + ")", i, "s");
+                partial(sb, "sum(1.0*" + field + "*" + field + ")", i, "q");
+                break;
+            case SUM:
+                partial(sb, "sum(" + field + ")", i, "s");
+                partial(sb, "sum(1.0*" + field + "*" + field + ")", i, "q");
+                break;
+            case MIN:
+            case MAX:
+                partial(sb, count.getType() + "(" + field + ")", i, "v");
+                break;
+            default:
+                break;
+        }
+    }
+
+    private static void partial(StringBuilder sb, String expression, int i, String suffix) {
+        sb.append(',').append(expression).append(SPACE).append(AS).append(SPACE).append(partialName(i, suffix));
+    }
+
+    private static void whereBuild(StringBuilder sb, List<Object> params, Filters optimized) {
+        if (optimized != null) {
+            SqlBuild.preparedSqlBuild(sb, params, optimized);
+        } else {
+            sb.append(TRUE_CONDITION);
+        }
+    }
+
+    private void groupByBuild(StringBuilder sb) {
+        if (groupBy.isEmpty()) {
+            return;
+        }
+        sb.append(SPACE).append(GROUP_BY).append(SPACE);
+        for (int i = 0; i < groupBy.size(); i++) {
+            sb.append(i == 0 ? "" : ",").append(groupBy.get(i));
+        }
+    }
+
+    private List<Object> groupKey(Map<String, Object> row) {
+        List<Object> key = new ArrayList<>(groupBy.size());
+        groupBy.forEach(column -> key.add(row.get(SqlBuild.columnLabel(column))));
+        return key;
+    }
+
+    private boolean hasDistinct() {
+        return counts.stream().anyMatch(count -> COUNT_DISTINCT.equals(count.getType()));
+    }
+
+    private static double toDouble(Object value) {
+        if (value == null) {
+            return 0;
+        }
+        return value instanceof Number ? ((Number) value).doubleValue() : Double.parseDouble(value.toString());
+    }
+
+    private static String partialName(int index, String suffix) {
+        return PARTIAL_PREFIX + index + "_" + suffix;
+    }
+}
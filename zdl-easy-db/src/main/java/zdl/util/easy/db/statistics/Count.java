@@ -2,6 +2,7 @@ package zdl.util.easy.db.statistics;
 
 import lombok.Getter;
 import lombok.Setter;
+import org.apache.commons.lang3.StringUtils;
 import zdl.util.easy.db.FilterConstant;
 
 /**
@@ -27,4 +28,11 @@ public class Count {
      * 不填为默认字段：{@link Count#type} + '_' + {@link Count#field}
      */
     private String outPutField;
+
+    /**
+     * @return 统计结果的字段名
+     */
+    public String outPutName() {
+        return StringUtils.isNotBlank(outPutField) ? outPutField : type + "_" + field;
+    }
 }
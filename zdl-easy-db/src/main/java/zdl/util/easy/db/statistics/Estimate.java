@@ -0,0 +1,51 @@
+package zdl.util.easy.db.statistics;
+
+import lombok.Getter;
+
+/**
+ * 近似统计值及其置信区间
+ *
+ * @author ZDLegend
+ * @version 1.0
+ * @date 2026/10/17/ 09:10
+ */
+@Getter
+public class Estimate {
+
+    /**
+     * 估计值，无数据时为null（如avg）
+     */
+    private final Double value;
+
+    /**
+     * 置信区间下限，无法估计误差时为null
+     */
+    private final Double lower;
+
+    /**
+     * 置信区间上限，无法估计误差时为null
+     */
+    private final Double upper;
+
+    public Estimate(Double value, Double lower, Double upper) {
+        this.value = value;
+        this.lower = lower;
+        this.upper = upper;
+    }
+
+    /**
+     * @param value 估计值
+     * @param error 置信区间半径
+     */
+    static Estimate of(double value, double error) {
+        return new Estimate(value, value - error, value + error);
+    }
+
+    @Override
+    public String toString() {
+        if (value == null || lower == null) {
+            return String.valueOf(value);
+        }
+        return value + " [" + lower + ", " + upper + "]";
+    }
+}
@@ -0,0 +1,228 @@
+package zdl.util.easy.db.statistics;
+
+/**
+ * HyperLogLog近似去重计数，相对标准误差约为1.04/sqrt(2^precision)
+ * <p>
+ * 值按{@link Object#toString()}做64位哈希，因此1与"1"视为同一个值；null不计数。非线程安全
+ * <p>
+ * 非空寄存器较少时以稀疏表保存，超过寄存器数的1/8后转为2^precision字节的稠密数组，
+ * 大量只有少数值的分组各自只占用几十字节
+ *
+ * @author ZDLegend
+ * @version 1.0
+ * @date 2026/10/17/ 09:20
+ */
+public class HyperLogLog {
+
+    public static final int DEFAULT_PRECISION = 14;
+
+    private static final int SPARSE_INITIAL_CAPACITY = 8;
+
+    private final int precision;
+    private final int hashBits;
+
+    /**
+     * 稀疏表：开放寻址，元素为(index + 1) &lt;&lt; 8 | rank，0为空位；转为稠密后为null
+     */
+    private int[] sparse = new int[SPARSE_INITIAL_CAPACITY];
+    private int sparseSize;
+    private byte[] registers;
+
+    public HyperLogLog() {
+        this(DEFAULT_PRECISION);
+    }
+
+    /**
+     * @param precision 寄存器个数的位数，[4, 18]
+     */
+    public HyperLogLog(int precision) {
+        this(precision, Long.SIZE);
+    }
+
+    /**
+     * @param hashBits 哈希位数，数据库中以32位哈希计算寄存器时为32
+     */
+    HyperLogLog(int precision, int hashBits) {
+        if (precision < 4 || precision > 18) {
+            throw new IllegalArgumentException("precision须在[4, 18]之间：" + precision);
+        }
+        this.precision = precision;
+        this.hashBits = hashBits;
+    }
+
+    public void add(Object value) {
+        if (value != null) {
+            addHash(hash(value.toString()));
+        }
+    }
+
+    void addHash(long hash) {
+        int index = (int) (hash >>> (Long.SIZE - precision));
+        long rest = hash << precision;
+        offer(index, rest == 0 ? Long.SIZE - precision + 1 : Long.numberOfLeadingZeros(rest) + 1);
+    }
+
+    /**
+     * 以数据库计算的寄存器更新：hashBits位哈希的低precision位为index，其余高位为rest
+     *
+     * @param rest 寄存器中最小的rest，rest越小前导零越多
+     */
+    void addRest(int index, long rest) {
+        int restBits = hashBits - precision;
+        offer(index, rest == 0 ? restBits + 1 : restBits - (Long.SIZE - 1 - Long.numberOfLeadingZeros(rest)));
+    }
+
+    /**
+     * 合并另一个相同精度的计数器，结果等同于对两者值的并集计数
+     */
+    public void merge(HyperLogLog other) {
+        if (other.precision != precision || other.hashBits != hashBits) {
+            throw new IllegalArgumentException("precision或哈希位数不同，无法合并");
+        }
+        if (other.registers != null) {
+            for (int i = 0; i < other.registers.length; i++) {
+                if (other.registers[i] > 0) {
+                    offer(i, other.registers[i]);
+                }
+            }
+        } else {
+            for (int entry : other.sparse) {
+                if (entry != 0) {
+                    offer((entry >>> 8) - 1, entry & 0xff);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return 去重计数估计值
+     */
+    public long estimate() {
+        int m = 1 << precision;
+        double sum = 0;
+        int zeros = 0;
+        if (registers != null) {
+            for (byte register : registers) {
+                sum += 1.0 / (1L << register);
+                if (register == 0) {
+                    zeros++;
+                }
+            }
+        } else {
+            zeros = m - sparseSize;
+            sum = zeros;
+            for (int entry : sparse) {
+                if (entry != 0) {
+                    sum += 1.0 / (1L << (entry & 0xff));
+                }
+            }
+        }
+
+        double estimate = alpha(m) * m * m / sum;
+        if (estimate <= 2.5 * m && zeros > 0) {
+            //小基数时使用线性计数
+            estimate = m * Math.log((double) m / zeros);
+        } else if (hashBits == Integer.SIZE && estimate > (1L << Integer.SIZE) / 30.0) {
+            //32位哈希在大基数时碰撞明显，按哈希空间修正
+            double space = 1L << Integer.SIZE;
+            estimate = -space * Math.log(1 - Math.min(estimate / space, 0.999));
+        }
+        return Math.round(estimate);
+    }
+
+    /**
+     * @return 相对标准误差
+     */
+    public double standardError() {
+        return 1.04 / Math.sqrt(1 << precision);
+    }
+
+    private void offer(int index, int rank) {
+        if (registers != null) {
+            if (rank > registers[index]) {
+                registers[index] = (byte) rank;
+            }
+            return;
+        }
+
+        int mask = sparse.length - 1;
+        for (int slot = mix(index) & mask; ; slot = (slot + 1) & mask) {
+            int entry = sparse[slot];
+            if (entry == 0) {
+                sparse[slot] = (index + 1) << 8 | rank;
+                if (++sparseSize > (1 << precision) >>> 3) {
+                    toDense();
+                } else if (sparseSize * 2 > sparse.length) {
+                    resize();
+                }
+                return;
+            }
+            if ((entry >>> 8) - 1 == index) {
+                if (rank > (entry & 0xff)) {
+                    sparse[slot] = (index + 1) << 8 | rank;
+                }
+                return;
+            }
+        }
+    }
+
+    private void resize() {
+        int[] old = sparse;
+        sparse = new int[old.length << 1];
+        int mask = sparse.length - 1;
+        for (int entry : old) {
+            if (entry != 0) {
+                int slot = mix((entry >>> 8) - 1) & mask;
+                while (sparse[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                sparse[slot] = entry;
+            }
+        }
+    }
+
+    private void toDense() {
+        registers = new byte[1 << precision];
+        for (int entry : sparse) {
+            if (entry != 0) {
+                registers[(entry >>> 8) - 1] = (byte) (entry & 0xff);
+            }
+        }
+        sparse = null;
+        sparseSize = 0;
+    }
+
+    private static int mix(int index) {
+        return index * 0x9E3779B9 >>> 7;
+    }
+
+    private static double alpha(int m) {
+        switch (m) {
+            case 16:
+                return 0.673;
+            case 32:
+                return 0.697;
+            case 64:
+                return 0.709;
+            default:
+                return 0.7213 / (1 + 1.079 / m);
+        }
+    }
+
+    /**
+     * FNV-1a后以MurmurHash3的fmix64打散
+     */
+    static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
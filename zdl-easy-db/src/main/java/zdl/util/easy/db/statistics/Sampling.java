@@ -0,0 +1,59 @@
+package zdl.util.easy.db.statistics;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * 抽样配置
+ * <p>
+ * PostgreSQL使用TABLESAMPLE，其他数据库以随机数过滤逐行抽样（等价于BERNOULLI，忽略{@link #seed}）。
+ * 置信区间按逐行独立抽样计算，SYSTEM按数据页抽样，数据按页聚集时实际误差会大于区间
+ *
+ * @author ZDLegend
+ * @version 1.0
+ * @date 2026/10/17/ 09:10
+ */
+@Getter
+@Setter
+public class Sampling {
+
+    public static final String BERNOULLI = "BERNOULLI";
+    public static final String SYSTEM = "SYSTEM";
+
+    /**
+     * 抽样方式：{@link #BERNOULLI}逐行抽样，{@link #SYSTEM}按数据页抽样（更快，误差更大）
+     */
+    private String method = BERNOULLI;
+
+    /**
+     * 抽样百分比，(0, 100]
+     */
+    private double percent;
+
+    /**
+     * 随机种子，设置后相同数据的抽样结果可重复
+     */
+    private Integer seed;
+
+    /**
+     * 置信区间的标准正态分位数，默认1.96即95%置信度
+     */
+    private double z = 1.96;
+
+    public Sampling() {
+    }
+
+    public Sampling(double percent) {
+        this.percent = percent;
+    }
+
+    /**
+     * @return 每行被抽中的概率
+     */
+    double fraction() {
+        if (percent <= 0 || percent > 100) {
+            throw new IllegalArgumentException("抽样百分比须在(0, 100]之间：" + percent);
+        }
+        return percent / 100;
+    }
+}
@@ -2,20 +2,35 @@ package zdl.util.easy.db.statistics;
 
 import lombok.Getter;
 import lombok.Setter;
-import org.apache.commons.lang3.StringUtils;
 import org.springframework.util.CollectionUtils;
+import zdl.util.easy.db.DBConstant;
 import zdl.util.easy.db.DatabaseConfig;
+import zdl.util.easy.db.FilterConstant;
 import zdl.util.easy.db.Filters;
+import zdl.util.easy.db.FiltersOptimizer;
+import zdl.util.easy.db.PreparedSql;
+import zdl.util.easy.db.SqlAppender;
 import zdl.util.easy.db.SqlBuild;
+import zdl.util.easy.db.SqlTemplateCache;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 
 import static zdl.util.easy.db.FilterConstant.*;
 import static zdl.util.easy.db.SqlBuild.*;
 
 /**
  * 统计数据库语句拼接类
+ * <p>
+ * 设置{@link #groupingSets}或{@link #rollup}时，多个分组在一条语句中统计：
+ * 支持的数据库（见{@link DBConstant#GROUPING_FUNCTION}）生成GROUP BY GROUPING SETS/ROLLUP，
+ * 其他数据库以WITH子句过滤一次、各分组UNION ALL模拟。结果中{@link FilterConstant#GROUPING_ID}列标识所属分组，
+ * 通过{@link #splitGroupingSets(List)}按分组拆分
  *
  * @author ZDLegend
  * @version 1.0
@@ -25,6 +40,8 @@ import static zdl.util.easy.db.SqlBuild.*;
 @Setter
 public class Statistics {
 
+    private static final String GROUPING_BASE = "grouping_base";
+
     /**
      * 过滤条件
      */
@@ -40,6 +57,18 @@ public class Statistics {
      */
     private List<String> groupBy;
 
+    /**
+     * 多个分组集合，如[[], [region], [region, day]]，设置后忽略{@link #groupBy}，空集合表示总计
+     * <p>
+     * 分组字段须为列名（可加双引号），不能带表名前缀
+     */
+    private List<List<String>> groupingSets;
+
+    /**
+     * 为true时按{@link #groupBy}逐级汇总，即ROLLUP：[a,b]统计(a,b)、(a)、()三个分组
+     */
+    private boolean rollup;
+
     /**
      * 拼接sql语句
      *
@@ -47,39 +76,337 @@ public class Statistics {
      * @return sql语句
      */
     public String sqlBuild(DatabaseConfig source) {
+        try (SqlAppender sql = SqlAppender.open()) {
+            Filters optimized = filters != null ? FiltersOptimizer.optimize(filters) : null;
+            build(sql.builder(), source, where -> {
+                int start = where.length();
+                if (optimized != null) {
+                    SqlBuild.sqlBuild(where, optimized);
+                }
+                if (where.length() == start) {
+                    where.append(TRUE_CONDITION);
+                }
+            });
+            return sql.toString();
+        }
+    }
 
-        String head = "";
+    /**
+     * 拼接参数化sql语句，过滤条件的值以'?'占位
+     *
+     * @param source 数据源
+     * @return sql模板与绑定值
+     */
+    public PreparedSql preparedSqlBuild(DatabaseConfig source) {
+        return preparedSqlBuild(source, SqlTemplateCache.getDefault());
+    }
 
-        String columns = String.join(",", groupBy);
+    /**
+     * 拼接参数化sql语句，sql模板按查询的结构特征从cache中获取，命中时只需收集绑定值
+     * <p>
+     * 过滤条件先经{@link FiltersOptimizer}化简，恒假且没有总计分组时返回的语句标记为结果必然为空；
+     * 无分组或含总计分组时数据库仍返回一行（count为0），因此照常执行
+     *
+     * @param source 数据源
+     * @param cache  sql模板缓存
+     * @return sql模板与绑定值
+     */
+    public PreparedSql preparedSqlBuild(DatabaseConfig source, SqlTemplateCache cache) {
+        Filters optimized = filters != null ? FiltersOptimizer.optimize(filters) : null;
+        List<Object> params = new ArrayList<>();
+        String key;
 
-        if (StringUtils.isNotBlank(columns)) {
-            head = columns;
+        try (SqlAppender shape = SqlAppender.open()) {
+            StringBuilder sb = shape.builder();
+            sb.append(GROUP_BY).append('|').append(source.getDbType())
+                    .append('|').append(source.getLongTableName())
+                    .append('|');
+            if (!CollectionUtils.isEmpty(counts)) {
+                for (Count count : counts) {
+                    sb.append(count.getType()).append(SPACE)
+                            .append(count.getField()).append(SPACE)
+                            .append(count.getOutPutField()).append(',');
+                }
+            }
+            sb.append('|');
+            if (!CollectionUtils.isEmpty(groupBy)) {
+                join(sb, groupBy);
+            }
+            sb.append('|');
+            if (rollup) {
+                sb.append(ROLLUP);
+            }
+            if (!CollectionUtils.isEmpty(groupingSets)) {
+                for (List<String> set : groupingSets) {
+                    sb.append('(');
+                    join(sb, set);
+                    sb.append(')');
+                }
+            }
+            sb.append('|');
+            if (optimized != null) {
+                SqlBuild.shapeBuild(sb, params, optimized);
+            }
+            key = shape.toString();
         }
 
-        if (!CollectionUtils.isEmpty(counts)) {
-            head = head + "," + counts.stream()
-                    .map(count -> {
-                        StringBuilder sb = new StringBuilder();
-                        sb.append(count.getType())
-                                .append(addBrackets(addSingleQuotes(count.getField())))
-                                .append(addSpace(AS));
-                        if (StringUtils.isNotBlank(count.getOutPutField())) {
-                            sb.append(count.getOutPutField());
-                        } else {
-                            sb.append(count.getType()).append("_").append(count.getField());
-                        }
-                        return sb.toString();
-                    })
-                    .collect(Collectors.joining(","));
-        }
-
-        String where = SqlBuild.sqlBuild(filters);
-        where = StringUtils.isNotBlank(where) ? where : TRUE_CONDITION;
-
-        if (StringUtils.isNotBlank(columns)) {
-            return String.format(COUNT_FORMAT, head, source.getLongTableName(), where, columns);
+        String sql = cache.get(key, () -> templateBuild(source, optimized));
+        boolean alwaysEmpty = optimized != null && FiltersOptimizer.isAlwaysFalse(optimized) && !hasTotal();
+        return new PreparedSql(sql, params, alwaysEmpty);
+    }
+
+    /**
+     * 按{@link FilterConstant#GROUPING_ID}列将多分组统计结果拆分到各分组
+     *
+     * @param rows 设置{@link #groupingSets}或{@link #rollup}时的统计结果
+     * @return 分组集合到该分组结果的映射，顺序同分组集合；结果行为不含{@link FilterConstant#GROUPING_ID}列的新map，
+     * 未参与该分组的字段值为null，rows本身不会被修改（可能是{@link StatisticsCache}中共享的结果）
+     */
+    public Map<List<String>, List<Map<String, Object>>> splitGroupingSets(List<Map<String, Object>> rows) {
+        List<List<String>> sets = effectiveGroupingSets();
+        if (sets == null) {
+            throw new IllegalStateException("未设置groupingSets或rollup");
+        }
+
+        List<String> columns = groupingColumns(sets);
+        Map<Integer, List<Map<String, Object>>> byId = new LinkedHashMap<>();
+        Map<List<String>, List<Map<String, Object>>> result = new LinkedHashMap<>();
+        for (List<String> set : sets) {
+            result.put(set, byId.computeIfAbsent(groupingId(set, columns), k -> new ArrayList<>()));
+        }
+
+        for (Map<String, Object> row : rows) {
+            Object id = null;
+            Map<String, Object> copy = new LinkedHashMap<>();
+            for (Map.Entry<String, Object> entry : row.entrySet()) {
+                //列名大小写随数据库而定
+                if (GROUPING_ID.equalsIgnoreCase(entry.getKey())) {
+                    id = entry.getValue();
+                } else {
+                    copy.put(entry.getKey(), entry.getValue());
+                }
+            }
+            if (id == null) {
+                throw new IllegalArgumentException("统计结果中缺少" + GROUPING_ID + "列");
+            }
+            List<Map<String, Object>> setRows = byId.get(((Number) id).intValue());
+            if (setRows != null) {
+                setRows.add(copy);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 拼接sql模板，结构与绑定值顺序须与{@link #preparedSqlBuild(DatabaseConfig, SqlTemplateCache)}一致
+     */
+    private String templateBuild(DatabaseConfig source, Filters filters) {
+        StringBuilder sb = new StringBuilder();
+        List<Object> params = new ArrayList<>();
+
+        build(sb, source, where -> {
+            if (filters != null) {
+                SqlBuild.preparedSqlBuild(where, params, filters);
+            } else {
+                where.append(TRUE_CONDITION);
+            }
+        });
+
+        return sb.toString();
+    }
+
+    /**
+     * 拼接完整语句，过滤条件由where写入；多分组模拟时过滤条件也只出现一次，绑定值顺序不变
+     */
+    private void build(StringBuilder sb, DatabaseConfig source, Consumer<StringBuilder> where) {
+        List<List<String>> sets = effectiveGroupingSets();
+        if (sets == null) {
+            sb.append(SELECT).append(SPACE);
+            headBuild(sb, groupBy, null);
+            sb.append(SPACE).append(FROM).append(SPACE).append(source.getLongTableName())
+                    .append(SPACE).append(WHERE).append(SPACE);
+            where.accept(sb);
+            if (!CollectionUtils.isEmpty(groupBy)) {
+                sb.append(addSpace(GROUP_BY));
+                join(sb, groupBy);
+            }
+            return;
+        }
+
+        List<String> columns = groupingColumns(sets);
+        String function = DBConstant.GROUPING_FUNCTION.get(source.getDbType());
+        if (function != null) {
+            nativeBuild(sb, source, where, sets, columns, function);
         } else {
-            return String.format(SELECT_FORMAT, head, source.getLongTableName(), where);
+            emulateBuild(sb, source, where, sets, columns);
+        }
+    }
+
+    /**
+     * SELECT a,b,count(*) AS c,GROUPING(a,b) AS grouping_id FROM t WHERE ... GROUP BY GROUPING SETS ((a,b),(a),())
+     */
+    private void nativeBuild(StringBuilder sb, DatabaseConfig source, Consumer<StringBuilder> where,
+                             List<List<String>> sets, List<String> columns, String function) {
+        sb.append(SELECT).append(SPACE);
+        headBuild(sb, columns, null);
+        sb.append(',');
+        if (columns.isEmpty()) {
+            sb.append('0');
+        } else {
+            sb.append(function).append('(');
+            join(sb, columns);
+            sb.append(')');
+        }
+        sb.append(addSpace(AS)).append(GROUPING_ID)
+                .append(SPACE).append(FROM).append(SPACE).append(source.getLongTableName())
+                .append(SPACE).append(WHERE).append(SPACE);
+        where.accept(sb);
+
+        if (columns.isEmpty()) {
+            return;
+        }
+        sb.append(addSpace(GROUP_BY));
+        if (CollectionUtils.isEmpty(groupingSets)) {
+            sb.append(ROLLUP).append('(');
+            join(sb, columns);
+            sb.append(')');
+            return;
+        }
+        sb.append(GROUPING_SETS).append(" (");
+        for (int i = 0; i < sets.size(); i++) {
+            sb.append(i == 0 ? "(" : ",(");
+            join(sb, sets.get(i));
+            sb.append(')');
+        }
+        sb.append(')');
+    }
+
+    /**
+     * WITH grouping_base AS (SELECT * FROM t WHERE ...)
+     * SELECT a,b,count(*) AS c,0 AS grouping_id FROM grouping_base GROUP BY a,b
+     * UNION ALL SELECT a,NULL AS b,count(*) AS c,1 AS grouping_id FROM grouping_base GROUP BY a ...
+     */
+    private void emulateBuild(StringBuilder sb, DatabaseConfig source, Consumer<StringBuilder> where,
+                              List<List<String>> sets, List<String> columns) {
+        sb.append("WITH ").append(GROUPING_BASE).append(addSpace(AS)).append('(')
+                .append(SELECT).append(SPACE).append(ASTERISK)
+                .append(SPACE).append(FROM).append(SPACE).append(source.getLongTableName())
+                .append(SPACE).append(WHERE).append(SPACE);
+        where.accept(sb);
+        sb.append(')');
+
+        for (int i = 0; i < sets.size(); i++) {
+            List<String> set = sets.get(i);
+            sb.append(i == 0 ? SPACE : " UNION ALL ").append(SELECT).append(SPACE);
+            headBuild(sb, columns, set);
+            sb.append(',').append(groupingId(set, columns)).append(addSpace(AS)).append(GROUPING_ID)
+                    .append(SPACE).append(FROM).append(SPACE).append(GROUPING_BASE);
+            if (!set.isEmpty()) {
+                sb.append(addSpace(GROUP_BY));
+                join(sb, set);
+            }
+        }
+    }
+
+    /**
+     * 拼接SELECT后的分组字段与统计字段
+     *
+     * @param columns 分组字段
+     * @param grouped 模拟多分组时当前分组的字段，不在其中的分组字段输出为NULL；为null时全部输出
+     */
+    private void headBuild(StringBuilder sb, List<String> columns, List<String> grouped) {
+        boolean first = true;
+
+        if (!CollectionUtils.isEmpty(columns)) {
+            for (String column : columns) {
+                if (!first) {
+                    sb.append(',');
+                }
+                first = false;
+                if (grouped == null || grouped.contains(column)) {
+                    sb.append(column);
+                } else {
+                    sb.append("NULL").append(addSpace(AS)).append(column);
+                }
+            }
+        }
+
+        if (!CollectionUtils.isEmpty(counts)) {
+            for (Count count : counts) {
+                if (!first) {
+                    sb.append(',');
+                }
+                first = false;
+                if (COUNT_DISTINCT.equals(count.getType())) {
+                    sb.append(COUNT).append("(DISTINCT ");
+                } else {
+                    sb.append(count.getType()).append('(');
+                }
+                if (ASTERISK.equals(count.getField())) {
+                    sb.append(ASTERISK);
+                } else {
+                    sb.append('"').append(count.getField()).append('"');
+                }
+                sb.append(')').append(' ').append(AS).append(' ').append(count.outPutName());
+            }
+        }
+    }
+
+    /**
+     * @return 实际统计的分组集合，未设置多分组时返回null
+     */
+    private List<List<String>> effectiveGroupingSets() {
+        if (!CollectionUtils.isEmpty(groupingSets)) {
+            return groupingSets;
+        }
+        if (!rollup) {
+            return null;
+        }
+        List<String> columns = CollectionUtils.isEmpty(groupBy) ? List.of() : groupBy;
+        List<List<String>> sets = new ArrayList<>(columns.size() + 1);
+        for (int i = columns.size(); i >= 0; i--) {
+            sets.add(columns.subList(0, i));
+        }
+        return sets;
+    }
+
+    /**
+     * @return 结果是否必然包含总计行
+     */
+    private boolean hasTotal() {
+        List<List<String>> sets = effectiveGroupingSets();
+        if (sets == null) {
+            return CollectionUtils.isEmpty(groupBy);
+        }
+        return sets.stream().anyMatch(List::isEmpty);
+    }
+
+    /**
+     * @return 全部分组集合中出现的字段，按首次出现的顺序
+     */
+    private static List<String> groupingColumns(List<List<String>> sets) {
+        Set<String> columns = new LinkedHashSet<>();
+        sets.forEach(columns::addAll);
+        return new ArrayList<>(columns);
+    }
+
+    /**
+     * 分组标识，同SQL标准GROUPING(a,b,...)：第一个字段为最高位，字段不在分组中时该位为1
+     */
+    private static int groupingId(List<String> set, List<String> columns) {
+        int id = 0;
+        for (String column : columns) {
+            id = id << 1 | (set.contains(column) ? 0 : 1);
+        }
+        return id;
+    }
+
+    private static void join(StringBuilder sb, List<String> columns) {
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(columns.get(i));
         }
     }
 }
@@ -0,0 +1,270 @@
+package zdl.util.easy.db.statistics;
+
+import org.apache.commons.dbutils.handlers.MapListHandler;
+import zdl.util.easy.db.DBPoolsManage;
+import zdl.util.easy.db.DatabaseConfig;
+import zdl.util.easy.db.EasyDBException;
+import zdl.util.easy.db.PreparedSql;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 统计结果缓存，按需使用
+ * <p>
+ * 以{@link DatabaseConfig#getSingleton()}与参数化sql（含绑定值）为键缓存{@link Statistics}的查询结果：
+ * <ul>
+ *     <li>按表设置过期时间，未设置的表使用默认过期时间</li>
+ *     <li>按权重（结果单元格数）限制总容量，超出后按写入顺序淘汰，条目与写入顺序保存在同一个加锁的LinkedHashMap中</li>
+ *     <li>相同键的并发未命中只执行一次查询，其余调用等待同一结果</li>
+ *     <li>可按表名主动失效，失效前已开始的查询结果不会写入缓存</li>
+ * </ul>
+ *
+ * @author ZDLegend
+ * @version 1.0
+ * @date 2026/10/16/ 17:10
+ */
+public class StatisticsCache {
+
+    private final long defaultTtlMillis;
+    private final long maximumWeight;
+
+    private final ConcurrentMap<String, Long> ttlTable = new ConcurrentHashMap<>();
+    /**
+     * 按写入顺序排列的缓存条目，所有访问都在entries上加锁
+     */
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+    private final ConcurrentMap<String, CompletableFuture<List<Map<String, Object>>>> loadings = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, AtomicLong> generations = new ConcurrentHashMap<>();
+    private long totalWeight;
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder loadCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    /**
+     * @param defaultTtlMillis 默认过期时间（毫秒）
+     * @param maximumWeight    最大总权重，即缓存结果的单元格总数
+     */
+    public StatisticsCache(long defaultTtlMillis, long maximumWeight) {
+        if (defaultTtlMillis <= 0 || maximumWeight <= 0) {
+            throw new IllegalArgumentException("defaultTtlMillis与maximumWeight必须大于0");
+        }
+        this.defaultTtlMillis = defaultTtlMillis;
+        this.maximumWeight = maximumWeight;
+    }
+
+    /**
+     * 设置表的过期时间
+     *
+     * @param tableName 表名，同{@link DatabaseConfig#getLongTableName()}
+     * @param ttlMillis 过期时间（毫秒）
+     */
+    public void setTtl(String tableName, long ttlMillis) {
+        ttlTable.put(tableName, ttlMillis);
+    }
+
+    /**
+     * 获取统计结果，未命中或已过期时查询数据库
+     *
+     * @param statistics 统计条件
+     * @param config     数据源
+     * @return 统计结果，不可修改
+     */
+    public List<Map<String, Object>> get(Statistics statistics, DatabaseConfig config) throws SQLException {
+        PreparedSql sql = statistics.preparedSqlBuild(config);
+        String table = config.getLongTableName();
+        String key = config.getSingleton() + '|' + sql.getSql() + '|' + sql.getParams();
+
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                if (entry.expireAt > System.currentTimeMillis()) {
+                    hitCount.increment();
+                    return entry.rows;
+                }
+                remove(key);
+            }
+        }
+        missCount.increment();
+
+        CompletableFuture<List<Map<String, Object>>> created = new CompletableFuture<>();
+        CompletableFuture<List<Map<String, Object>>> loading = loadings.putIfAbsent(key, created);
+        if (loading != null) {
+            return await(loading);
+        }
+
+        long generation = generation(table).get();
+        try {
+            loadCount.increment();
+            List<Map<String, Object>> rows = unmodifiable(DBPoolsManage.query(sql, config, new MapListHandler()));
+            put(key, new Entry(table, rows, System.currentTimeMillis() + ttlTable.getOrDefault(table, defaultTtlMillis)),
+                    generation);
+            created.complete(rows);
+            return rows;
+        } catch (SQLException | RuntimeException e) {
+            created.completeExceptionally(e);
+            throw e;
+        } finally {
+            loadings.remove(key, created);
+        }
+    }
+
+    /**
+     * 使表的全部缓存结果失效
+     *
+     * @param tableName 表名，同{@link DatabaseConfig#getLongTableName()}
+     */
+    public void invalidate(String tableName) {
+        generation(tableName).incrementAndGet();
+        synchronized (entries) {
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (iterator.hasNext()) {
+                Entry entry = iterator.next();
+                if (entry.table.equals(tableName)) {
+                    iterator.remove();
+                    totalWeight -= entry.weight;
+                }
+            }
+        }
+    }
+
+    public void invalidateAll() {
+        generations.values().forEach(AtomicLong::incrementAndGet);
+        synchronized (entries) {
+            entries.clear();
+            totalWeight = 0;
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getWeight() {
+        synchronized (entries) {
+            return totalWeight;
+        }
+    }
+
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    public long getLoadCount() {
+        return loadCount.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "StatisticsCache{size=" + size()
+                + ", weight=" + getWeight()
+                + ", hitCount=" + getHitCount()
+                + ", missCount=" + getMissCount()
+                + ", loadCount=" + getLoadCount()
+                + ", evictionCount=" + getEvictionCount() + "}";
+    }
+
+    /**
+     * @param generation 开始查询时表的版本，加锁后仍未变化才写入；失效先增加版本再加锁移除，二者不会错过
+     */
+    private void put(String key, Entry entry, long generation) {
+        synchronized (entries) {
+            if (generation != generation(entry.table).get()) {
+                return;
+            }
+            //先移除旧条目，重新写入的键排到最后
+            remove(key);
+            entries.put(key, entry);
+            totalWeight += entry.weight;
+
+            long now = System.currentTimeMillis();
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (totalWeight > maximumWeight && iterator.hasNext()) {
+                Entry eldest = iterator.next();
+                if (eldest == entry) {
+                    break;
+                }
+                iterator.remove();
+                totalWeight -= eldest.weight;
+                if (eldest.expireAt > now) {
+                    evictionCount.increment();
+                }
+            }
+        }
+    }
+
+    /**
+     * 须在entries上加锁调用
+     */
+    private void remove(String key) {
+        Entry old = entries.remove(key);
+        if (old != null) {
+            totalWeight -= old.weight;
+        }
+    }
+
+    private AtomicLong generation(String tableName) {
+        return generations.computeIfAbsent(tableName, k -> new AtomicLong());
+    }
+
+    /**
+     * 结果在调用方之间共享，列表与每一行都不可修改。
+     * 行是本次查询新建、没有其他引用的map，包装即可，且保留dbutils列名大小写不敏感的查找
+     */
+    private static List<Map<String, Object>> unmodifiable(List<Map<String, Object>> rows) {
+        List<Map<String, Object>> copy = new ArrayList<>(rows.size());
+        for (Map<String, Object> row : rows) {
+            copy.add(Collections.unmodifiableMap(row));
+        }
+        return Collections.unmodifiableList(copy);
+    }
+
+    private static List<Map<String, Object>> await(CompletableFuture<List<Map<String, Object>>> loading)
+            throws SQLException {
+        try {
+            return loading.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof SQLException) {
+                throw (SQLException) e.getCause();
+            }
+            throw new EasyDBException(e.getCause());
+        }
+    }
+
+    private static final class Entry {
+        private final String table;
+        private final List<Map<String, Object>> rows;
+        private final long expireAt;
+        private final long weight;
+
+        private Entry(String table, List<Map<String, Object>> rows, long expireAt) {
+            this.table = table;
+            this.rows = rows;
+            this.expireAt = expireAt;
+            this.weight = 1 + rows.stream().mapToLong(Map::size).sum();
+        }
+    }
+}
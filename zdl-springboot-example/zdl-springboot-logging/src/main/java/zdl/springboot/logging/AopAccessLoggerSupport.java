@@ -9,7 +9,7 @@ import zdl.springboot.logging.aop.MethodInterceptorHolder;
 import zdl.springboot.logging.parser.AccessLoggerParser;
 import zdl.springboot.logging.parser.LoggerDefine;
 import zdl.springboot.utils.WebUtil;
-import zdl.util.common.RecordIDUtil;
+import zdl.util.common.RecordIdGenerator;
 
 import javax.servlet.http.HttpServletRequest;
 import java.lang.reflect.Method;
@@ -52,7 +52,7 @@ public class AopAccessLoggerSupport extends StaticMethodMatcherPointcutAdvisor {
     protected AccessLoggerInfo createLogger(MethodInterceptorHolder holder) {
         AccessLoggerInfo info = new AccessLoggerInfo();
         long time = System.currentTimeMillis();
-        info.setId(RecordIDUtil.generateRecordId(time));
+        info.setId(RecordIdGenerator.getDefault().nextId(time));
         info.setRequestTime(time);
         LoggerDefine define = loggerParsers.stream()
                 .filter(parser -> parser.support(ClassUtils.getUserClass(holder.getTarget()), holder.getMethod()))